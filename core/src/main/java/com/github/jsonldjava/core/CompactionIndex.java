@@ -0,0 +1,171 @@
+package com.github.jsonldjava.core;
+
+import static com.github.jsonldjava.core.JsonLdUtils.compareShortestLeast;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.jsonldjava.utils.IriPrefixTrie;
+
+/**
+ * The lookup tables used by the IRI Compaction algorithm, built once from the
+ * term definitions and inverse context of a {@link Context}.
+ *
+ * Term selection uses a flattened copy of the inverse context, indexed by IRI
+ * and container, and the search for a compact IRI uses an
+ * {@link IriPrefixTrie} of the IRI mappings of all terms, so that only the
+ * terms whose IRI is a prefix of the IRI being compacted are considered.
+ */
+final class CompactionIndex {
+
+    static final int INDEX = 0;
+    static final int SET = 1;
+    static final int LIST = 2;
+    static final int LANGUAGE = 3;
+    static final int NONE = 4;
+
+    private static final String[] CONTAINER_KEYWORDS = { "@index", "@set", "@list", "@language",
+            "@none" };
+
+    /**
+     * The type and language maps of the inverse context for one IRI and
+     * container.
+     */
+    private static final class Selection {
+        private final Map<String, String> type;
+        private final Map<String, String> language;
+
+        private Selection(Map<String, String> type, Map<String, String> language) {
+            this.type = type;
+            this.language = language;
+        }
+    }
+
+    private final Map<String, TermDefinition> termDefinitions;
+    private final Map<String, Selection[]> selections = new HashMap<String, Selection[]>();
+    private final IriPrefixTrie<List<String>> prefixes;
+
+    /**
+     * Creates the index for the given term definitions and their inverse
+     * context. Neither may be modified while the index is in use.
+     */
+    CompactionIndex(Map<String, TermDefinition> termDefinitions, Map<String, Object> inverse) {
+        this.termDefinitions = termDefinitions;
+        for (final Map.Entry<String, Object> entry : inverse.entrySet()) {
+            final Map<String, Object> containerMap = (Map<String, Object>) entry.getValue();
+            final Selection[] selection = new Selection[CONTAINER_KEYWORDS.length];
+            for (int i = 0; i < CONTAINER_KEYWORDS.length; i++) {
+                final Map<String, Object> typeLanguageMap = (Map<String, Object>) containerMap
+                        .get(CONTAINER_KEYWORDS[i]);
+                if (typeLanguageMap != null) {
+                    selection[i] = new Selection(
+                            (Map<String, String>) typeLanguageMap.get("@type"),
+                            (Map<String, String>) typeLanguageMap.get("@language"));
+                }
+            }
+            selections.put(entry.getKey(), selection);
+        }
+        final Map<String, List<String>> terms = new LinkedHashMap<String, List<String>>();
+        for (final Map.Entry<String, TermDefinition> entry : termDefinitions.entrySet()) {
+            // terms containing a colon are never used as prefixes
+            if (entry.getValue() == null || entry.getKey().indexOf(':') >= 0) {
+                continue;
+            }
+            List<String> iriTerms = terms.get(entry.getValue().getId());
+            if (iriTerms == null) {
+                iriTerms = new ArrayList<String>(1);
+                terms.put(entry.getValue().getId(), iriTerms);
+            }
+            iriTerms.add(entry.getKey());
+        }
+        this.prefixes = new IriPrefixTrie<List<String>>(terms);
+    }
+
+    /**
+     * @return true if there is a term for the given IRI in the inverse
+     *         context.
+     */
+    boolean hasTerms(String iri) {
+        return selections.containsKey(iri);
+    }
+
+    /**
+     * Term Selection
+     *
+     * http://json-ld.org/spec/latest/json-ld-api/#term-selection
+     *
+     * @param iri
+     *            The IRI to select a term for.
+     * @param containers
+     *            The containers to consider, in order of preference, as
+     *            indices of this index.
+     * @param type
+     *            true to select by type mapping, false to select by language
+     *            mapping.
+     * @param preferredValues
+     *            The type or language values to consider, in order of
+     *            preference.
+     * @return the selected term, or null if there is none.
+     */
+    String selectTerm(String iri, int[] containers, boolean type, String[] preferredValues) {
+        // 1)
+        final Selection[] selection = selections.get(iri);
+        if (selection == null) {
+            return null;
+        }
+        // 2)
+        for (final int container : containers) {
+            // 2.1)
+            if (selection[container] == null) {
+                continue;
+            }
+            // 2.2 + 2.3)
+            final Map<String, String> valueMap = type ? selection[container].type
+                    : selection[container].language;
+            // 2.4)
+            for (final String item : preferredValues) {
+                final String term = valueMap.get(item);
+                if (term != null) {
+                    return term;
+                }
+            }
+        }
+        // 3)
+        return null;
+    }
+
+    /**
+     * Steps 4 to 6 of the IRI Compaction algorithm: finds the shortest and
+     * then lexicographically least compact IRI for the given IRI.
+     *
+     * @param iri
+     *            The IRI to compact.
+     * @param value
+     *            The value associated with the IRI, or null.
+     * @return The compact IRI, or null if there is no suitable term.
+     */
+    String compactIri(String iri, Object value) {
+        // 4)
+        String compactIRI = null;
+        // 5) NOTE: only the terms whose IRI is a proper prefix of iri are
+        // visited
+        for (final Map.Entry<String, List<String>> prefix : prefixes.properPrefixesOf(iri)) {
+            final String suffix = iri.substring(prefix.getKey().length());
+            for (final String term : prefix.getValue()) {
+                // 5.3)
+                final String candidate = term + ":" + suffix;
+                // 5.4)
+                if ((compactIRI == null || compareShortestLeast(candidate, compactIRI) < 0)
+                        && (!termDefinitions.containsKey(candidate) || (iri.equals(termDefinitions
+                                .get(candidate).getId()) && value == null))) {
+                    compactIRI = candidate;
+                }
+            }
+        }
+        // 6)
+        return compactIRI;
+    }
+}
@@ -1,13 +1,23 @@
 package com.github.jsonldjava.core;
 
+import static com.github.jsonldjava.core.CompactionIndex.INDEX;
+import static com.github.jsonldjava.core.CompactionIndex.LANGUAGE;
+import static com.github.jsonldjava.core.CompactionIndex.LIST;
+import static com.github.jsonldjava.core.CompactionIndex.NONE;
+import static com.github.jsonldjava.core.CompactionIndex.SET;
 import static com.github.jsonldjava.core.JsonLdUtils.compareShortestLeast;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 
 import com.github.jsonldjava.core.JsonLdError.Error;
 import com.github.jsonldjava.utils.Obj;
@@ -17,14 +27,51 @@ import com.github.jsonldjava.utils.JsonLdUrl;
  * A helper class which still stores all the values in a map but gives member
  * variables easily access certain keys
  * 
+ * A context can be frozen using {@link #freeze()}, after which it can no
+ * longer be modified and can be shared between threads and passed to any
+ * number of JsonLdProcessor calls, which will use it without copying it.
+ * 
  * @author tristan
  * 
  */
 public class Context extends LinkedHashMap<String, Object> {
 
     private JsonLdOptions options;
-    private Map<String, Object> termDefinitions;
-    public Map<String, Object> inverse = null;
+    private Map<String, TermDefinition> termDefinitions;
+    private volatile Map<String, Object> inverse = null;
+    private volatile boolean frozen = false;
+
+    /**
+     * The maximum number of results memoized by
+     * {@link #expandIri(String, boolean, boolean, Map, Map)} for each
+     * combination of the relative and vocab flags.
+     */
+    private static final int MAX_EXPANDED_IRIS = 4096;
+
+    private volatile ExpandedIris expandedIris = null;
+
+    private volatile CompactionIndex compactionIndex = null;
+
+    // the remote contexts loaded before expansion started, by their resolved
+    // URL, shared by all the contexts derived from this one
+    private Map<String, Future<RemoteDocument>> prefetched = null;
+
+    /**
+     * The containers to consider during term selection, by whether the value
+     * has an index and by the container that best matches the value.
+     */
+    private static final int[][][] CONTAINERS = {
+            { null, { SET, NONE }, { LIST, NONE }, { LANGUAGE, SET, NONE }, { NONE } },
+            { null, { INDEX, SET, NONE }, { INDEX, LIST, NONE }, { INDEX, LANGUAGE, SET, NONE },
+                    { INDEX, NONE } } };
+
+    // the preferred values used by term selection that don't depend on the
+    // value being compacted
+    private static final String[] VOCAB_ID = { "@vocab", "@id", "@none" };
+    private static final String[] ID_VOCAB = { "@id", "@vocab", "@none" };
+    private static final String[] REVERSE_VOCAB_ID = { "@reverse", "@vocab", "@id", "@none" };
+    private static final String[] REVERSE_ID_VOCAB = { "@reverse", "@id", "@vocab", "@none" };
+    private static final String[] REVERSE = { "@reverse", "@none" };
 
     public Context() {
         this(new JsonLdOptions());
@@ -56,7 +103,7 @@ public class Context extends LinkedHashMap<String, Object> {
         if (options.getBase() != null) {
             this.put("@base", options.getBase());
         }
-        this.termDefinitions = new LinkedHashMap<String, Object>();
+        this.termDefinitions = new LinkedHashMap<String, TermDefinition>();
     }
 
     /**
@@ -112,7 +159,7 @@ public class Context extends LinkedHashMap<String, Object> {
         // 7)
         if (numberMembers == 1
                 && (!(valueValue instanceof String) || !this.containsKey("@language") || (getTermDefinition(
-                        activeProperty).containsKey("@language") && languageMapping == null))) {
+                        activeProperty).hasLanguageMapping() && languageMapping == null))) {
             return valueValue;
         }
         // 8)
@@ -136,6 +183,16 @@ public class Context extends LinkedHashMap<String, Object> {
         if (remoteContexts == null) {
             remoteContexts = new ArrayList<String>();
         }
+        // a frozen context replaces the active context and can't be modified
+        // by any further processing, so there is no need to clone it
+        if (localContext instanceof List && ((List<Object>) localContext).size() == 1) {
+            final Object first = ((List<Object>) localContext).get(0);
+            if (first instanceof Context && ((Context) first).isFrozen()) {
+                return (Context) first;
+            }
+        } else if (localContext instanceof Context && ((Context) localContext).isFrozen()) {
+            return (Context) localContext;
+        }
         // 1. Initialize result to the result of cloning active context.
         Context result = this.clone(); // TODO: clone?
         // 2)
@@ -144,11 +201,16 @@ public class Context extends LinkedHashMap<String, Object> {
             localContext = new ArrayList<Object>();
             ((List<Object>) localContext).add(temp);
         }
+        // NOTE: the remote contexts in a context array are loaded concurrently,
+        // and then processed in order
+        final Map<String, Future<RemoteDocument>> loading = loadRemoteContexts(
+                (List<Object>) localContext, (String) result.get("@base"), remoteContexts);
         // 3)
         for (Object context : ((List<Object>) localContext)) {
             // 3.1)
             if (context == null) {
                 result = new Context(this.options);
+                result.prefetched = this.prefetched;
                 continue;
             } else if (context instanceof Context) {
                 result = ((Context) context).clone();
@@ -163,8 +225,28 @@ public class Context extends LinkedHashMap<String, Object> {
                 }
                 remoteContexts.add(uri);
 
+                // a remote context only depends on its url and the base it is
+                // resolved against when the active context is otherwise empty,
+                // so only then can a cached result be used
+                final ContextCache cache = this.options.getContextCache();
+                final boolean cacheable = cache != null && result.isPristine();
+                if (cacheable) {
+                    final Context cached = cache.get(uri, (String) result.get("@base"));
+                    if (cached != null) {
+                        result = cached.clone();
+                        result.options = this.options;
+                        result.prefetched = this.prefetched;
+                        continue;
+                    }
+                }
+
                 // 3.2.3: Dereference context
-                final RemoteDocument rd = this.options.getDocumentLoader().loadDocument(uri);
+                Future<RemoteDocument> future = loading.get(uri);
+                if (future == null && this.prefetched != null) {
+                    future = this.prefetched.get(uri);
+                }
+                final RemoteDocument rd = future != null ? DocumentLoader.await(future, uri)
+                        : this.options.getDocumentLoader().loadDocument(uri);
                 final Object remoteContext = rd.document;
                 if (!(remoteContext instanceof Map)
                         || !((Map<String, Object>) remoteContext).containsKey("@context")) {
@@ -175,7 +257,13 @@ public class Context extends LinkedHashMap<String, Object> {
                 context = ((Map<String, Object>) remoteContext).get("@context");
 
                 // 3.2.4
+                final String base = (String) result.get("@base");
                 result = result.parse(context, remoteContexts);
+                if (cacheable) {
+                    final Context cached = result.clone();
+                    cached.prefetched = null;
+                    cache.put(uri, base, cached);
+                }
                 // 3.2.5
                 continue;
             } else if (!(context instanceof Map)) {
@@ -250,6 +338,42 @@ public class Context extends LinkedHashMap<String, Object> {
         return this.parse(localContext, new ArrayList<String>());
     }
 
+    /**
+     * Starts loading the remote contexts in a context array in the
+     * background, if there is more than one that is not already cached.
+     * 
+     * @param contexts
+     *            The context array.
+     * @param base
+     *            The base IRI to resolve the remote context URLs against.
+     * @param remoteContexts
+     *            The remote contexts that are already being processed.
+     * @return The remote contexts being loaded, by their resolved URL.
+     */
+    private Map<String, Future<RemoteDocument>> loadRemoteContexts(List<Object> contexts,
+            String base, List<String> remoteContexts) {
+        final ContextCache cache = this.options.getContextCache();
+        final List<String> uris = new ArrayList<String>();
+        for (final Object context : contexts) {
+            if (context instanceof String) {
+                final String uri = JsonLdUrl.resolve(base, (String) context);
+                if (!uris.contains(uri) && !remoteContexts.contains(uri)
+                        && (prefetched == null || !prefetched.containsKey(uri))
+                        && (cache == null || !cache.contains(uri, base))) {
+                    uris.add(uri);
+                }
+            }
+        }
+        if (uris.size() < 2) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Future<RemoteDocument>> rval = new HashMap<String, Future<RemoteDocument>>();
+        for (final String uri : uris) {
+            rval.put(uri, this.options.getDocumentLoader().loadDocumentAsync(uri));
+        }
+        return rval;
+    }
+
     /**
      * Create Term Definition Algorithm
      * 
@@ -263,6 +387,7 @@ public class Context extends LinkedHashMap<String, Object> {
      */
     private void createTermDefinition(Map<String, Object> context, String term,
             Map<String, Boolean> defined) throws JsonLdError {
+        modified();
         if (defined.containsKey(term)) {
             if (Boolean.TRUE.equals(defined.get(term))) {
                 return;
@@ -300,7 +425,11 @@ public class Context extends LinkedHashMap<String, Object> {
         final Map<String, Object> val = (Map<String, Object>) value;
 
         // 9) create a new term definition
-        final Map<String, Object> definition = new LinkedHashMap<String, Object>();
+        String id;
+        String typeMapping = null;
+        TermDefinition.Container containerMapping = null;
+        boolean hasLanguageMapping = false;
+        String languageMapping = null;
 
         // 10)
         if (val.containsKey("@type")) {
@@ -320,7 +449,7 @@ public class Context extends LinkedHashMap<String, Object> {
             // least not here!)
             if ("@id".equals(type) || "@vocab".equals(type)
                     || (!type.startsWith("_:") && JsonLdUtils.isAbsoluteIri(type))) {
-                definition.put("@type", type);
+                typeMapping = type;
             } else {
                 throw new JsonLdError(Error.INVALID_TYPE_MAPPING, type);
             }
@@ -343,24 +472,23 @@ public class Context extends LinkedHashMap<String, Object> {
                 throw new JsonLdError(Error.INVALID_IRI_MAPPING, "Non-absolute @reverse IRI: "
                         + reverse);
             }
-            definition.put("@id", reverse);
             if (val.containsKey("@container")) {
                 final String container = (String) val.get("@container");
                 if (container == null || "@set".equals(container) || "@index".equals(container)) {
-                    definition.put("@container", container);
+                    containerMapping = TermDefinition.Container.fromKeyword(container);
                 } else {
                     throw new JsonLdError(Error.INVALID_REVERSE_PROPERTY,
                             "reverse properties only support set- and index-containers");
                 }
             }
-            definition.put("@reverse", true);
-            this.termDefinitions.put(term, definition);
+            this.termDefinitions.put(term, new TermDefinition(reverse, true, containerMapping,
+                    typeMapping, false, null));
             defined.put(term, true);
             return;
         }
 
-        // 12)
-        definition.put("@reverse", false);
+        // 12) NOTE: the reverse property flag is set when the definition is
+        // created below
 
         // 13)
         if (val.get("@id") != null && !term.equals(val.get("@id"))) {
@@ -375,7 +503,7 @@ public class Context extends LinkedHashMap<String, Object> {
                 if ("@context".equals(res)) {
                     throw new JsonLdError(Error.INVALID_KEYWORD_ALIAS, "cannot alias @context");
                 }
-                definition.put("@id", res);
+                id = res;
             } else {
                 throw new JsonLdError(Error.INVALID_IRI_MAPPING,
                         "resulting IRI mapping should be a keyword, absolute IRI or blank node");
@@ -391,14 +519,13 @@ public class Context extends LinkedHashMap<String, Object> {
                 this.createTermDefinition(context, prefix, defined);
             }
             if (termDefinitions.containsKey(prefix)) {
-                definition.put("@id",
-                        ((Map<String, Object>) termDefinitions.get(prefix)).get("@id") + suffix);
+                id = termDefinitions.get(prefix).getId() + suffix;
             } else {
-                definition.put("@id", term);
+                id = term;
             }
             // 15)
         } else if (this.containsKey("@vocab")) {
-            definition.put("@id", this.get("@vocab") + term);
+            id = this.get("@vocab") + term;
         } else {
             throw new JsonLdError(Error.INVALID_IRI_MAPPING,
                     "relative term definition without vocab mapping");
@@ -412,14 +539,15 @@ public class Context extends LinkedHashMap<String, Object> {
                 throw new JsonLdError(Error.INVALID_CONTAINER_MAPPING,
                         "@container must be either @list, @set, @index, or @language");
             }
-            definition.put("@container", container);
+            containerMapping = TermDefinition.Container.fromKeyword(container);
         }
 
         // 17)
         if (val.containsKey("@language") && !val.containsKey("@type")) {
             if (val.get("@language") == null || val.get("@language") instanceof String) {
                 final String language = (String) val.get("@language");
-                definition.put("@language", language != null ? language.toLowerCase() : null);
+                hasLanguageMapping = true;
+                languageMapping = language != null ? language.toLowerCase() : null;
             } else {
                 throw new JsonLdError(Error.INVALID_LANGUAGE_MAPPING,
                         "@language must be a string or null");
@@ -427,7 +555,8 @@ public class Context extends LinkedHashMap<String, Object> {
         }
 
         // 18)
-        this.termDefinitions.put(term, definition);
+        this.termDefinitions.put(term, new TermDefinition(id, false, containerMapping,
+                typeMapping, hasLanguageMapping, languageMapping));
         defined.put(term, true);
     }
 
@@ -450,6 +579,33 @@ public class Context extends LinkedHashMap<String, Object> {
         if (value == null || JsonLdUtils.isKeyword(value)) {
             return value;
         }
+        // NOTE: outside of context processing the result only depends on
+        // this context, so it is memoized until the context is modified
+        if (context == null) {
+            ExpandedIris cache = expandedIris;
+            if (cache == null) {
+                cache = new ExpandedIris();
+                expandedIris = cache;
+            }
+            final Map<String, String> results = cache.get(relative, vocab);
+            String rval = results.get(value);
+            if (rval == null) {
+                rval = doExpandIri(value, relative, vocab, null, null);
+                if (rval != null && results.size() < MAX_EXPANDED_IRIS) {
+                    results.put(value, rval);
+                }
+            }
+            return rval;
+        }
+        return doExpandIri(value, relative, vocab, context, defined);
+    }
+
+    /**
+     * Steps 2 to 7 of the IRI Expansion Algorithm, which
+     * {@link #expandIri(String, boolean, boolean, Map, Map)} memoizes.
+     */
+    private String doExpandIri(String value, boolean relative, boolean vocab,
+            Map<String, Object> context, Map<String, Boolean> defined) throws JsonLdError {
         // 2)
         if (context != null && context.containsKey(value)
                 && !Boolean.TRUE.equals(defined.get(value))) {
@@ -457,10 +613,9 @@ public class Context extends LinkedHashMap<String, Object> {
         }
         // 3)
         if (vocab && this.termDefinitions.containsKey(value)) {
-            final Map<String, Object> td = (LinkedHashMap<String, Object>) this.termDefinitions
-                    .get(value);
+            final TermDefinition td = this.termDefinitions.get(value);
             if (td != null) {
-                return (String) td.get("@id");
+                return td.getId();
             } else {
                 return null;
             }
@@ -482,8 +637,7 @@ public class Context extends LinkedHashMap<String, Object> {
             }
             // 4.4)
             if (this.termDefinitions.containsKey(prefix)) {
-                return (String) ((LinkedHashMap<String, Object>) this.termDefinitions.get(prefix))
-                        .get("@id") + suffix;
+                return this.termDefinitions.get(prefix).getId() + suffix;
             }
             // 4.5)
             return value;
@@ -528,36 +682,41 @@ public class Context extends LinkedHashMap<String, Object> {
             return null;
         }
 
+        final CompactionIndex index = getCompactionIndex();
+
         // 2)
-        if (relativeToVocab && getInverse().containsKey(iri)) {
+        if (relativeToVocab && index.hasTerms(iri)) {
             // 2.1)
             String defaultLanguage = (String) this.get("@language");
             if (defaultLanguage == null) {
                 defaultLanguage = "@none";
             }
 
-            // 2.2)
-            final List<String> containers = new ArrayList<String>();
+            // 2.2) NOTE: the containers are the index container if the value
+            // has an @index, followed by at most one of the containers below,
+            // followed by @none
+            boolean indexContainer = false;
+            int container = NONE;
             // 2.3)
-            String typeLanguage = "@language";
+            boolean typeLanguageIsType = false;
             String typeLanguageValue = "@null";
 
             // 2.4)
             if (value instanceof Map && ((Map<String, Object>) value).containsKey("@index")) {
-                containers.add("@index");
+                indexContainer = true;
             }
 
             // 2.5)
             if (reverse) {
-                typeLanguage = "@type";
+                typeLanguageIsType = true;
                 typeLanguageValue = "@reverse";
-                containers.add("@set");
+                container = SET;
             }
             // 2.6)
             else if (value instanceof Map && ((Map<String, Object>) value).containsKey("@list")) {
                 // 2.6.1)
                 if (!((Map<String, Object>) value).containsKey("@index")) {
-                    containers.add("@list");
+                    container = LIST;
                 }
                 // 2.6.2)
                 final List<Object> list = (List<Object>) ((Map<String, Object>) value).get("@list");
@@ -615,7 +774,7 @@ public class Context extends LinkedHashMap<String, Object> {
                 commonType = (commonType != null) ? commonType : "@none";
                 // 2.6.7)
                 if (!"@none".equals(commonType)) {
-                    typeLanguage = "@type";
+                    typeLanguageIsType = true;
                     typeLanguageValue = commonType;
                 }
                 // 2.6.8)
@@ -630,63 +789,61 @@ public class Context extends LinkedHashMap<String, Object> {
                     // 2.7.1.1)
                     if (((Map<String, Object>) value).containsKey("@language")
                             && !((Map<String, Object>) value).containsKey("@index")) {
-                        containers.add("@language");
+                        container = LANGUAGE;
                         typeLanguageValue = (String) ((Map<String, Object>) value).get("@language");
                     }
                     // 2.7.1.2)
                     else if (((Map<String, Object>) value).containsKey("@type")) {
-                        typeLanguage = "@type";
+                        typeLanguageIsType = true;
                         typeLanguageValue = (String) ((Map<String, Object>) value).get("@type");
                     }
                 }
                 // 2.7.2)
                 else {
-                    typeLanguage = "@type";
+                    typeLanguageIsType = true;
                     typeLanguageValue = "@id";
                 }
-                // 2.7.3)
-                containers.add("@set");
+                // 2.7.3) NOTE: the set container follows the language container
+                if (container != LANGUAGE) {
+                    container = SET;
+                }
             }
 
             // 2.8)
-            containers.add("@none");
+            final int[] containers = CONTAINERS[indexContainer ? 1 : 0][container];
             // 2.9)
             if (typeLanguageValue == null) {
                 typeLanguageValue = "@null";
             }
-            // 2.10)
-            final List<String> preferredValues = new ArrayList<String>();
-            // 2.11)
-            if ("@reverse".equals(typeLanguageValue)) {
-                preferredValues.add("@reverse");
-            }
+            // 2.10 + 2.11)
+            final boolean preferReverse = "@reverse".equals(typeLanguageValue);
+            final String[] preferredValues;
             // 2.12)
             if (("@reverse".equals(typeLanguageValue) || "@id".equals(typeLanguageValue))
                     && (value instanceof Map) && ((Map<String, Object>) value).containsKey("@id")) {
                 // 2.12.1)
                 final String result = this.compactIri(
                         (String) ((Map<String, Object>) value).get("@id"), null, true, true);
-                if (termDefinitions.containsKey(result)
-                        && ((Map<String, Object>) termDefinitions.get(result)).containsKey("@id")
+                if (termDefinitions.get(result) != null
                         && ((Map<String, Object>) value).get("@id").equals(
-                                ((Map<String, Object>) termDefinitions.get(result)).get("@id"))) {
-                    preferredValues.add("@vocab");
-                    preferredValues.add("@id");
+                                termDefinitions.get(result).getId())) {
+                    preferredValues = preferReverse ? REVERSE_VOCAB_ID : VOCAB_ID;
                 }
                 // 2.12.2)
                 else {
-                    preferredValues.add("@id");
-                    preferredValues.add("@vocab");
+                    preferredValues = preferReverse ? REVERSE_ID_VOCAB : ID_VOCAB;
                 }
             }
             // 2.13)
-            else {
-                preferredValues.add(typeLanguageValue);
+            else if (preferReverse) {
+                preferredValues = REVERSE;
+            } else {
+                preferredValues = new String[] { typeLanguageValue, "@none" };
             }
-            preferredValues.add("@none");
 
             // 2.14)
-            final String term = selectTerm(iri, containers, typeLanguage, preferredValues);
+            final String term = index.selectTerm(iri, containers, typeLanguageIsType,
+                    preferredValues);
             // 2.15)
             if (term != null) {
                 return term;
@@ -708,34 +865,8 @@ public class Context extends LinkedHashMap<String, Object> {
             }
         }
 
-        // 4)
-        String compactIRI = null;
-        // 5)
-        for (final String term : termDefinitions.keySet()) {
-            final Map<String, Object> termDefinition = (Map<String, Object>) termDefinitions
-                    .get(term);
-            // 5.1)
-            if (term.contains(":")) {
-                continue;
-            }
-            // 5.2)
-            if (termDefinition == null || iri.equals(termDefinition.get("@id"))
-                    || !iri.startsWith((String) termDefinition.get("@id"))) {
-                continue;
-            }
-
-            // 5.3)
-            final String candidate = term + ":"
-                    + iri.substring(((String) termDefinition.get("@id")).length());
-            // 5.4)
-            if ((compactIRI == null || compareShortestLeast(candidate, compactIRI) < 0)
-                    && (!termDefinitions.containsKey(candidate) || (iri
-                            .equals(((Map<String, Object>) termDefinitions.get(candidate))
-                                    .get("@id")) && value == null))) {
-                compactIRI = candidate;
-            }
-
-        }
+        // 4 + 5)
+        final String compactIRI = index.compactIri(iri, value);
 
         // 6)
         if (compactIRI != null) {
@@ -764,10 +895,147 @@ public class Context extends LinkedHashMap<String, Object> {
         final Context rval = (Context) super.clone();
         // TODO: is this shallow copy enough? probably not, but it passes all
         // the tests!
-        rval.termDefinitions = new LinkedHashMap<String, Object>(this.termDefinitions);
+        rval.termDefinitions = new LinkedHashMap<String, TermDefinition>(this.termDefinitions);
+        // everything derived from the term definitions has to be rebuilt, as
+        // the clone may change them
+        rval.frozen = false;
+        rval.modified();
         return rval;
     }
 
+    /**
+     * Drops everything derived from the term definitions and keywords of this
+     * context, after they have been changed.
+     */
+    private void modified() {
+        inverse = null;
+        expandedIris = null;
+        compactionIndex = null;
+    }
+
+    /**
+     * Makes this context immutable, after creating its inverse context so that
+     * it doesn't need to be lazily created later. A frozen context can safely
+     * be shared between threads. Use {@link #clone()} to get a modifiable copy.
+     * 
+     * @return This context.
+     */
+    public Context freeze() {
+        if (!frozen) {
+            inverse = unmodifiableCopy(getInverse());
+            getCompactionIndex();
+            frozen = true;
+        }
+        return this;
+    }
+
+    // copies the nested maps of the inverse context as well
+    private static Map<String, Object> unmodifiableCopy(Map<String, Object> map) {
+        final Map<String, Object> rval = new LinkedHashMap<String, Object>();
+        for (final Map.Entry<String, Object> entry : map.entrySet()) {
+            final Object value = entry.getValue();
+            rval.put(entry.getKey(),
+                    value instanceof Map ? unmodifiableCopy((Map<String, Object>) value) : value);
+        }
+        return Collections.unmodifiableMap(rval);
+    }
+
+    /**
+     * @return true if {@link #freeze()} has been called on this context.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Sets the remote contexts that have already been loaded, or are being
+     * loaded, for use by this context and all the contexts derived from it.
+     *
+     * @param prefetched
+     *            The remote documents, by their resolved URL.
+     */
+    void setPrefetched(Map<String, Future<RemoteDocument>> prefetched) {
+        checkNotFrozen();
+        this.prefetched = prefetched;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("This context is frozen");
+        }
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        checkNotFrozen();
+        modified();
+        return super.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends Object> m) {
+        checkNotFrozen();
+        modified();
+        super.putAll(m);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        checkNotFrozen();
+        modified();
+        return super.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        checkNotFrozen();
+        modified();
+        super.clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return frozen ? Collections.unmodifiableSet(super.keySet()) : super.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return frozen ? Collections.unmodifiableCollection(super.values()) : super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return frozen ? Collections.unmodifiableSet(super.entrySet()) : super.entrySet();
+    }
+
+    /**
+     * @return true if this context has no term definitions, no default
+     *         language and no vocabulary mapping.
+     */
+    private boolean isPristine() {
+        return termDefinitions.isEmpty() && !this.containsKey("@vocab")
+                && !this.containsKey("@language");
+    }
+
+    int getTermDefinitionCount() {
+        return termDefinitions.size();
+    }
+
+    /**
+     * Returns the tables used by the IRI Compaction algorithm, which are built
+     * once from the inverse context and then reused.
+     * 
+     * @return The compaction index for this context.
+     */
+    CompactionIndex getCompactionIndex() {
+        CompactionIndex index = compactionIndex;
+        if (index == null) {
+            index = new CompactionIndex(termDefinitions, getInverse());
+            compactionIndex = index;
+        }
+        return index;
+    }
+
     /**
      * Inverse Context Creation
      * 
@@ -776,17 +1044,20 @@ public class Context extends LinkedHashMap<String, Object> {
      * Generates an inverse context for use in the compaction algorithm, if not
      * already generated for the given active context.
      * 
-     * @return the inverse context.
+     * @return the inverse context, which can't be modified if this context is
+     *         frozen.
      */
     public Map<String, Object> getInverse() {
 
         // lazily create inverse
-        if (inverse != null) {
-            return inverse;
+        if (this.inverse != null) {
+            return this.inverse;
         }
 
         // 1)
-        inverse = new LinkedHashMap<String, Object>();
+        // NOTE: the inverse is only published once complete, so that
+        // concurrent callers never see a partially built inverse context
+        final Map<String, Object> inverse = new LinkedHashMap<String, Object>();
 
         // 2)
         String defaultLanguage = (String) this.get("@language");
@@ -805,20 +1076,20 @@ public class Context extends LinkedHashMap<String, Object> {
         });
 
         for (final String term : terms) {
-            final Map<String, Object> definition = (Map<String, Object>) termDefinitions.get(term);
+            final TermDefinition definition = termDefinitions.get(term);
             // 3.1)
             if (definition == null) {
                 continue;
             }
 
             // 3.2)
-            String container = (String) definition.get("@container");
+            String container = definition.getContainerKeyword();
             if (container == null) {
                 container = "@none";
             }
 
             // 3.3)
-            final String iri = (String) definition.get("@id");
+            final String iri = definition.getId();
 
             // 3.4 + 3.5)
             Map<String, Object> containerMap = (Map<String, Object>) inverse.get(iri);
@@ -837,24 +1108,24 @@ public class Context extends LinkedHashMap<String, Object> {
             }
 
             // 3.8)
-            if (Boolean.TRUE.equals(definition.get("@reverse"))) {
+            if (definition.isReverse()) {
                 final Map<String, Object> typeMap = (Map<String, Object>) typeLanguageMap
                         .get("@type");
                 if (!typeMap.containsKey("@reverse")) {
                     typeMap.put("@reverse", term);
                 }
                 // 3.9)
-            } else if (definition.containsKey("@type")) {
+            } else if (definition.getTypeMapping() != null) {
                 final Map<String, Object> typeMap = (Map<String, Object>) typeLanguageMap
                         .get("@type");
-                if (!typeMap.containsKey(definition.get("@type"))) {
-                    typeMap.put((String) definition.get("@type"), term);
+                if (!typeMap.containsKey(definition.getTypeMapping())) {
+                    typeMap.put(definition.getTypeMapping(), term);
                 }
                 // 3.10)
-            } else if (definition.containsKey("@language")) {
+            } else if (definition.hasLanguageMapping()) {
                 final Map<String, Object> languageMap = (Map<String, Object>) typeLanguageMap
                         .get("@language");
-                String language = (String) definition.get("@language");
+                String language = definition.getLanguageMapping();
                 if (language == null) {
                     language = "@null";
                 }
@@ -884,53 +1155,10 @@ public class Context extends LinkedHashMap<String, Object> {
             }
         }
         // 4)
+        this.inverse = inverse;
         return inverse;
     }
 
-    /**
-     * Term Selection
-     * 
-     * http://json-ld.org/spec/latest/json-ld-api/#term-selection
-     * 
-     * This algorithm, invoked via the IRI Compaction algorithm, makes use of an
-     * active context's inverse context to find the term that is best used to
-     * compact an IRI. Other information about a value associated with the IRI
-     * is given, including which container mappings and which type mapping or
-     * language mapping would be best used to express the value.
-     * 
-     * @return the selected term.
-     */
-    private String selectTerm(String iri, List<String> containers, String typeLanguage,
-            List<String> preferredValues) {
-        final Map<String, Object> inv = getInverse();
-        // 1)
-        final Map<String, Object> containerMap = (Map<String, Object>) inv.get(iri);
-        // 2)
-        for (final String container : containers) {
-            // 2.1)
-            if (!containerMap.containsKey(container)) {
-                continue;
-            }
-            // 2.2)
-            final Map<String, Object> typeLanguageMap = (Map<String, Object>) containerMap
-                    .get(container);
-            // 2.3)
-            final Map<String, Object> valueMap = (Map<String, Object>) typeLanguageMap
-                    .get(typeLanguage);
-            // 2.4 )
-            for (final String item : preferredValues) {
-                // 2.4.1
-                if (!valueMap.containsKey(item)) {
-                    continue;
-                }
-                // 2.4.2
-                return (String) valueMap.get(item);
-            }
-        }
-        // 3)
-        return null;
-    }
-
     /**
      * Retrieve container mapping.
      * 
@@ -945,54 +1173,53 @@ public class Context extends LinkedHashMap<String, Object> {
         if (JsonLdUtils.isKeyword(property)) {
             return property;
         }
-        final Map<String, Object> td = (Map<String, Object>) termDefinitions.get(property);
+        final TermDefinition td = termDefinitions.get(property);
         if (td == null) {
             return null;
         }
-        return (String) td.get("@container");
+        return td.getContainerKeyword();
     }
 
     public Boolean isReverseProperty(String property) {
-        final Map<String, Object> td = (Map<String, Object>) termDefinitions.get(property);
+        final TermDefinition td = termDefinitions.get(property);
         if (td == null) {
             return false;
         }
-        final Object reverse = td.get("@reverse");
-        return reverse != null && (Boolean) reverse;
+        return td.isReverse();
     }
 
     private String getTypeMapping(String property) {
-        final Map<String, Object> td = (Map<String, Object>) termDefinitions.get(property);
+        final TermDefinition td = termDefinitions.get(property);
         if (td == null) {
             return null;
         }
-        return (String) td.get("@type");
+        return td.getTypeMapping();
     }
 
     private String getLanguageMapping(String property) {
-        final Map<String, Object> td = (Map<String, Object>) termDefinitions.get(property);
+        final TermDefinition td = termDefinitions.get(property);
         if (td == null) {
             return null;
         }
-        return (String) td.get("@language");
+        return td.getLanguageMapping();
     }
 
-    Map<String, Object> getTermDefinition(String key) {
-        return ((Map<String, Object>) termDefinitions.get(key));
+    TermDefinition getTermDefinition(String key) {
+        return termDefinitions.get(key);
     }
 
     public Object expandValue(String activeProperty, Object value) throws JsonLdError {
         final Map<String, Object> rval = new LinkedHashMap<String, Object>();
-        final Map<String, Object> td = getTermDefinition(activeProperty);
+        final TermDefinition td = getTermDefinition(activeProperty);
         // 1)
-        if (td != null && "@id".equals(td.get("@type"))) {
+        if (td != null && "@id".equals(td.getTypeMapping())) {
             // TODO: i'm pretty sure value should be a string if the @type is
             // @id
             rval.put("@id", expandIri(value.toString(), true, false, null, null));
             return rval;
         }
         // 2)
-        if (td != null && "@vocab".equals(td.get("@type"))) {
+        if (td != null && "@vocab".equals(td.getTypeMapping())) {
             // TODO: same as above
             rval.put("@id", expandIri(value.toString(), true, true, null, null));
             return rval;
@@ -1000,14 +1227,14 @@ public class Context extends LinkedHashMap<String, Object> {
         // 3)
         rval.put("@value", value);
         // 4)
-        if (td != null && td.containsKey("@type")) {
-            rval.put("@type", td.get("@type"));
+        if (td != null && td.getTypeMapping() != null) {
+            rval.put("@type", td.getTypeMapping());
         }
         // 5)
         else if (value instanceof String) {
             // 5.1)
-            if (td != null && td.containsKey("@language")) {
-                final String lang = (String) td.get("@language");
+            if (td != null && td.hasLanguageMapping()) {
+                final String lang = td.getLanguageMapping();
                 if (lang != null) {
                     rval.put("@language", lang);
                 }
@@ -1037,32 +1264,31 @@ public class Context extends LinkedHashMap<String, Object> {
             ctx.put("@vocab", this.get("@vocab"));
         }
         for (final String term : termDefinitions.keySet()) {
-            final Map<String, Object> definition = (Map<String, Object>) termDefinitions.get(term);
-            if (definition.get("@language") == null
-                    && definition.get("@container") == null
-                    && definition.get("@type") == null
-                    && (definition.get("@reverse") == null || Boolean.FALSE.equals(definition
-                            .get("@reverse")))) {
-                final String cid = this.compactIri((String) definition.get("@id"));
-                ctx.put(term, term.equals(cid) ? definition.get("@id") : cid);
+            final TermDefinition definition = termDefinitions.get(term);
+            if (definition == null) {
+                ctx.put(term, null);
+            } else if (definition.getLanguageMapping() == null
+                    && definition.getContainer() == null && definition.getTypeMapping() == null
+                    && !definition.isReverse()) {
+                final String cid = this.compactIri(definition.getId());
+                ctx.put(term, term.equals(cid) ? definition.getId() : cid);
             } else {
                 final Map<String, Object> defn = new LinkedHashMap<String, Object>();
-                final String cid = this.compactIri((String) definition.get("@id"));
-                final Boolean reverseProperty = Boolean.TRUE.equals(definition.get("@reverse"));
+                final String cid = this.compactIri(definition.getId());
+                final boolean reverseProperty = definition.isReverse();
                 if (!(term.equals(cid) && !reverseProperty)) {
                     defn.put(reverseProperty ? "@reverse" : "@id", cid);
                 }
-                final String typeMapping = (String) definition.get("@type");
+                final String typeMapping = definition.getTypeMapping();
                 if (typeMapping != null) {
                     defn.put("@type", JsonLdUtils.isKeyword(typeMapping) ? typeMapping
                             : compactIri(typeMapping, true));
                 }
-                if (definition.get("@container") != null) {
-                    defn.put("@container", definition.get("@container"));
+                if (definition.getContainer() != null) {
+                    defn.put("@container", definition.getContainerKeyword());
                 }
-                final Object lang = definition.get("@language");
-                if (definition.get("@language") != null) {
-                    defn.put("@language", Boolean.FALSE.equals(lang) ? null : lang);
+                if (definition.getLanguageMapping() != null) {
+                    defn.put("@language", definition.getLanguageMapping());
                 }
                 ctx.put(term, defn);
             }
@@ -1075,4 +1301,21 @@ public class Context extends LinkedHashMap<String, Object> {
         return rval;
     }
 
+    /**
+     * The memoized results of IRI expansion, for each combination of the
+     * relative and vocab flags.
+     */
+    private static final class ExpandedIris {
+        private final Map<String, String> absolute = new ConcurrentHashMap<String, String>();
+        private final Map<String, String> relative = new ConcurrentHashMap<String, String>();
+        private final Map<String, String> vocab = new ConcurrentHashMap<String, String>();
+        private final Map<String, String> relativeVocab = new ConcurrentHashMap<String, String>();
+
+        Map<String, String> get(boolean relative, boolean vocab) {
+            if (relative) {
+                return vocab ? this.relativeVocab : this.relative;
+            }
+            return vocab ? this.vocab : this.absolute;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+package com.github.jsonldjava.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread-safe cache of processed remote contexts, keyed by the
+ * resolved context URL and the base IRI it was resolved against.
+ *
+ * An instance can be set on any number of {@link JsonLdOptions} objects, and
+ * shared between threads, so that each remote context is dereferenced and
+ * processed once instead of once per document. Entries are evicted in least
+ * recently used order once the total weight of the cached contexts, measured
+ * in term definitions, exceeds the configured maximum.
+ *
+ * The options that share a cache should use equivalent
+ * {@link DocumentLoader}s, as the cache does not know which loader produced
+ * an entry.
+ */
+public class ContextCache {
+
+    /**
+     * The default maximum weight, in term definitions, of all cached contexts.
+     */
+    public static final long DEFAULT_MAX_WEIGHT = 100000;
+
+    private final long maxWeight;
+    private final Map<String, Context> entries = new LinkedHashMap<String, Context>(16, 0.75f,
+            true);
+    private long weight = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a cache using {@link #DEFAULT_MAX_WEIGHT}.
+     */
+    public ContextCache() {
+        this(DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * Creates a cache that holds contexts until the total number of term
+     * definitions they contain exceeds maxWeight.
+     *
+     * @param maxWeight
+     *            The maximum total weight of the cached contexts.
+     */
+    public ContextCache(long maxWeight) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Returns the processed context for the given URL and base, or null if it
+     * is not cached.
+     *
+     * @param url
+     *            The resolved URL of the remote context.
+     * @param base
+     *            The base IRI the context was processed with.
+     * @return The cached context, which must not be modified by the caller.
+     */
+    Context get(String url, String base) {
+        final Context rval;
+        synchronized (this) {
+            rval = entries.get(key(url, base));
+        }
+        if (rval == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return rval;
+    }
+
+    /**
+     * Checks whether a processed context is cached, without counting a hit or
+     * a miss.
+     *
+     * @param url
+     *            The resolved URL of the remote context.
+     * @param base
+     *            The base IRI the context was processed with.
+     * @return true if the context is cached.
+     */
+    synchronized boolean contains(String url, String base) {
+        return entries.containsKey(key(url, base));
+    }
+
+    /**
+     * Adds a processed context to this cache, evicting the least recently used
+     * entries if necessary.
+     *
+     * @param url
+     *            The resolved URL of the remote context.
+     * @param base
+     *            The base IRI the context was processed with.
+     * @param context
+     *            The processed context, which must not be modified after it
+     *            has been added.
+     */
+    void put(String url, String base, Context context) {
+        synchronized (this) {
+            final Context previous = entries.put(key(url, base), context);
+            if (previous != null) {
+                weight -= weigh(previous);
+            }
+            weight += weigh(context);
+            final Iterator<Context> iterator = entries.values().iterator();
+            while (weight > maxWeight && entries.size() > 1) {
+                weight -= weigh(iterator.next());
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes all entries from this cache. The statistics are not reset.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return The number of contexts currently cached.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The total weight, in term definitions, of the cached contexts.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return The number of lookups that found a cached context.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of lookups that did not find a cached context.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of contexts evicted to stay within the maximum
+     *         weight.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private static String key(String url, String base) {
+        return base == null ? url : url + " " + base;
+    }
+
+    private static long weigh(Context context) {
+        return 1 + context.getTermDefinitionCount();
+    }
+}
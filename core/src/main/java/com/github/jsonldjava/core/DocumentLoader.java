@@ -11,27 +11,692 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.protocol.RequestAcceptEncoding;
 import org.apache.http.client.protocol.ResponseContentEncoding;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.impl.client.SystemDefaultHttpClient;
 import org.apache.http.impl.client.cache.CacheConfig;
 import org.apache.http.impl.client.cache.CachingHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.ProxySelectorRoutePlanner;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.ProxySelector;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DocumentLoader {
 
+    private static final ConcurrentMap<String, FutureTask<Object>> sharedInFlight = new ConcurrentHashMap<String, FutureTask<Object>>();
+    private static final Failures sharedFailures = new Failures();
+
+    private final HttpClientOptions httpClientOptions;
+    private final ConcurrentMap<String, FutureTask<Object>> inFlight;
+    private final Failures failures;
+    private volatile HttpClient loaderHttpClient = null;
+
+    /**
+     * Creates a loader that uses the HTTP client returned by
+     * {@link #getHttpClient()}, which is shared by all such loaders.
+     */
+    public DocumentLoader() {
+        this.httpClientOptions = null;
+        this.inFlight = sharedInFlight;
+        this.failures = sharedFailures;
+    }
+
+    /**
+     * Creates a loader with its own HTTP client, connection pool and cache,
+     * which are created when the first document is loaded over HTTP.
+     * 
+     * @param httpClientOptions
+     *            The settings of the HTTP client.
+     */
+    public DocumentLoader(HttpClientOptions httpClientOptions) {
+        if (httpClientOptions == null) {
+            throw new NullPointerException("httpClientOptions");
+        }
+        this.httpClientOptions = httpClientOptions;
+        this.inFlight = new ConcurrentHashMap<String, FutureTask<Object>>();
+        this.failures = new Failures();
+    }
+
     public RemoteDocument loadDocument(String url) throws JsonLdError {
-        RemoteDocument doc = new RemoteDocument(url, null);
         try {
-            doc.setDocument(fromURL(new URL(url)));
-        } catch (Exception e) {
-            new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, url);
+            return new RemoteDocument(url, fetch(url));
+        } catch (final IOException e) {
+            throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, url + " ("
+                    + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * @return The HTTP client used by this loader, which is the shared
+     *         {@link #getHttpClient()} unless the loader was created with its
+     *         own {@link HttpClientOptions}.
+     */
+    public HttpClient getLoaderHttpClient() {
+        if (httpClientOptions == null) {
+            return getHttpClient();
+        }
+        HttpClient result = loaderHttpClient;
+        if (result == null) {
+            synchronized (this) {
+                result = loaderHttpClient;
+                if (result == null) {
+                    result = createHttpClient(httpClientOptions);
+                    loaderHttpClient = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Closes the pooled connections of the HTTP client of this loader, if it
+     * has its own. The loader can still be used afterwards, and then creates
+     * a new HTTP client.
+     */
+    public void shutdown() {
+        if (httpClientOptions == null) {
+            return;
+        }
+        final HttpClient result;
+        synchronized (this) {
+            result = loaderHttpClient;
+            loaderHttpClient = null;
+        }
+        if (result != null) {
+            result.getConnectionManager().shutdown();
+        }
+    }
+
+    /**
+     * Creates an HTTP client with its own connection pool and cache, which
+     * uses the proxy settings of the JVM and supports compressed responses.
+     * 
+     * @param options
+     *            The settings of the HTTP client.
+     * @return The new HTTP client.
+     */
+    public static HttpClient createHttpClient(final HttpClientOptions options) {
+        final SchemeRegistry schemes = SchemeRegistryFactory.createSystemDefault();
+        final PoolingClientConnectionManager connections = new PoolingClientConnectionManager(
+                schemes);
+        connections.setDefaultMaxPerRoute(options.getMaxConnectionsPerRoute());
+        connections.setMaxTotal(Math.max(options.getMaxConnections(),
+                options.getMaxConnectionsPerRoute()));
+        final DefaultHttpClient client = new DefaultHttpClient(connections);
+        HttpConnectionParams.setConnectionTimeout(client.getParams(), options.getConnectTimeout());
+        HttpConnectionParams.setSoTimeout(client.getParams(), options.getSocketTimeout());
+        client.setRoutePlanner(new ProxySelectorRoutePlanner(schemes, ProxySelector.getDefault()));
+        if (options.getKeepAlive() >= 0) {
+            client.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
+                @Override
+                public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                    final long duration = super.getKeepAliveDuration(response, context);
+                    return duration < 0 ? options.getKeepAlive() : Math.min(duration,
+                            options.getKeepAlive());
+                }
+            });
+        }
+        // Support compressed data
+        client.addRequestInterceptor(new RequestAcceptEncoding());
+        client.addResponseInterceptor(new ResponseContentEncoding());
+        if (options.getMaxCacheEntries() == 0) {
+            return client;
+        }
+        final CacheConfig cacheConfig = new CacheConfig();
+        cacheConfig.setMaxObjectSize(options.getMaxCacheObjectSize());
+        cacheConfig.setMaxCacheEntries(options.getMaxCacheEntries());
+        return new CachingHttpClient(client, cacheConfig);
+    }
+
+    /**
+     * The default time for which a failure to load a URL is remembered.
+     */
+    public static final long DEFAULT_FAILURE_TTL = 30 * 1000L;
+    /**
+     * The default number of consecutive failures to load from a host after
+     * which no more requests are sent to it for a while.
+     */
+    public static final int DEFAULT_CIRCUIT_BREAKER_THRESHOLD = 5;
+    /**
+     * The default time for which no requests are sent to a host after too
+     * many failures.
+     */
+    public static final long DEFAULT_CIRCUIT_BREAKER_DELAY = 30 * 1000L;
+
+    private static final int MAX_FAILURES = 1024;
+
+    private volatile long failureTtl = DEFAULT_FAILURE_TTL;
+    private volatile int circuitBreakerThreshold = DEFAULT_CIRCUIT_BREAKER_THRESHOLD;
+    private volatile long circuitBreakerDelay = DEFAULT_CIRCUIT_BREAKER_DELAY;
+
+    /**
+     * The recent failures and the circuit breakers of the loaders that share
+     * an HTTP client. How long a failure counts, and when a circuit breaker
+     * opens, depend on the settings of the loader that asks.
+     */
+    private static final class Failures {
+        private final ConcurrentMap<String, Failure> failures = new ConcurrentHashMap<String, Failure>();
+        private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<String, Circuit>();
+
+        /**
+         * @throws IOException
+         *             If loading the URL failed less than ttl milliseconds
+         *             ago.
+         */
+        private void check(String url, long ttl) throws IOException {
+            final Failure failure = failures.get(url);
+            if (failure != null && System.currentTimeMillis() < failure.time + ttl) {
+                throw new IOException(failure.message);
+            }
+        }
+
+        private void add(String url, String message, long ttl) {
+            if (ttl <= 0) {
+                return;
+            }
+            final long now = System.currentTimeMillis();
+            if (failures.size() >= MAX_FAILURES) {
+                for (final Map.Entry<String, Failure> entry : failures.entrySet()) {
+                    if (entry.getValue().time + ttl <= now) {
+                        failures.remove(entry.getKey(), entry.getValue());
+                    }
+                }
+                if (failures.size() >= MAX_FAILURES) {
+                    return;
+                }
+            }
+            failures.put(url, new Failure(message, now));
+        }
+
+        private Circuit getCircuit(String url) {
+            final String host = getHost(url);
+            Circuit circuit = circuits.get(host);
+            if (circuit == null) {
+                circuit = new Circuit();
+                final Circuit existing = circuits.putIfAbsent(host, circuit);
+                if (existing != null) {
+                    circuit = existing;
+                }
+            }
+            return circuit;
+        }
+
+        private void clear() {
+            failures.clear();
+            circuits.clear();
+        }
+
+        /**
+         * A circuit breaker for the requests to a single host. It opens after
+         * too many consecutive failures, and then lets a single trial request
+         * through after each delay until one succeeds.
+         */
+        private static final class Circuit {
+            private final AtomicInteger consecutiveFailures = new AtomicInteger();
+            // the time of the last failure or trial request
+            private volatile long lastAttempt = 0;
+
+            private boolean allowRequest(int threshold, long delay) {
+                if (threshold <= 0 || consecutiveFailures.get() < threshold) {
+                    return true;
+                }
+                synchronized (this) {
+                    final long now = System.currentTimeMillis();
+                    if (now < lastAttempt + delay) {
+                        // open, or another thread is making the trial request
+                        return false;
+                    }
+                    lastAttempt = now;
+                    return true;
+                }
+            }
+
+            private void success() {
+                consecutiveFailures.set(0);
+            }
+
+            private void failure() {
+                lastAttempt = System.currentTimeMillis();
+                consecutiveFailures.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A recent failure to load a URL.
+     */
+    private static final class Failure {
+        private final String message;
+        private final long time;
+
+        private Failure(String message, long time) {
+            this.message = message;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Loads a document using {@link #fromURL(URL, HttpClient)} and the HTTP
+     * client of this loader. Concurrent calls for the same URL share a single
+     * request and parse, and so all return the same object, which must not be
+     * modified.
+     * 
+     * An HTTP or HTTPS URL that failed to load fails again without a request
+     * for {@link #getFailureTtl()} milliseconds, and no requests are sent to
+     * a host for {@link #getCircuitBreakerDelay()} milliseconds after
+     * {@link #getCircuitBreakerThreshold()} consecutive failures.
+     * 
+     * @param url
+     *            The URL of the document to load.
+     * @return The Map, List, or String that represent the JSON resource
+     * @throws IOException
+     *             If there was an error resolving or parsing the resource.
+     */
+    Object fetch(final String url) throws IOException {
+        return fetch(url, new Callable<Object>() {
+            @Override
+            public Object call() throws IOException {
+                return fromURL(new URL(url), getLoaderHttpClient());
+            }
+        });
+    }
+
+    /**
+     * Loads a document with the given request, sharing it with concurrent
+     * loads of the same URL, and applying the failure cache and circuit
+     * breaker described in {@link #fetch(String)}.
+     * 
+     * @param url
+     *            The URL of the document to load.
+     * @param request
+     *            Loads the document, if no other thread is loading it.
+     * @return The Map, List, or String that represent the JSON resource
+     * @throws IOException
+     *             If there was an error resolving or parsing the resource.
+     */
+    Object fetch(final String url, final Callable<Object> request) throws IOException {
+        // NOTE: local files are cheap to retry, and all have the same empty
+        // host, so they are not tracked
+        final Failures tracked = isHttp(url) ? failures : null;
+        final long ttl = failureTtl;
+        if (tracked != null) {
+            tracked.check(url, ttl);
+        }
+        FutureTask<Object> task = inFlight.get(url);
+        if (task == null) {
+            final Failures.Circuit circuit = tracked != null ? tracked.getCircuit(url) : null;
+            if (circuit != null
+                    && !circuit.allowRequest(circuitBreakerThreshold, circuitBreakerDelay)) {
+                throw new IOException("Too many failures for " + url + ", not retrying yet");
+            }
+            final FutureTask<Object> newTask = new FutureTask<Object>(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    try {
+                        final Object document = request.call();
+                        if (circuit != null) {
+                            circuit.success();
+                        }
+                        return document;
+                    } catch (final IOException e) {
+                        if (circuit != null) {
+                            circuit.failure();
+                            tracked.add(url, String.valueOf(e.getMessage()), ttl);
+                        }
+                        throw e;
+                    }
+                }
+            });
+            task = inFlight.putIfAbsent(url, newTask);
+            if (task == null) {
+                // this thread does the work, and the others wait for it
+                task = newTask;
+                try {
+                    task.run();
+                } finally {
+                    inFlight.remove(url, task);
+                }
+            }
+        }
+        try {
+            return task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading " + url);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static boolean isHttp(String url) {
+        return url.startsWith("http:") || url.startsWith("https:");
+    }
+
+    /**
+     * @return The time in milliseconds for which a failure to load a URL is
+     *         remembered.
+     */
+    public long getFailureTtl() {
+        return failureTtl;
+    }
+
+    /**
+     * Sets the time in milliseconds for which a failure to load an HTTP or
+     * HTTPS URL is remembered, during which loading it again fails straight
+     * away. Zero disables remembering failures. The failures are shared by
+     * all loaders that use the same HTTP client, but the setting only applies
+     * to this loader.
+     * 
+     * @param ttl
+     *            The time to remember failures for.
+     */
+    public void setFailureTtl(long ttl) {
+        if (ttl < 0) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        failureTtl = ttl;
+    }
+
+    /**
+     * @return The number of consecutive failures to load from a host after
+     *         which no requests are sent to it for a while.
+     */
+    public int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    /**
+     * Sets the number of consecutive failures to load from an HTTP or HTTPS
+     * host after which no requests are sent to it for
+     * {@link #getCircuitBreakerDelay()} milliseconds. Zero disables the
+     * circuit breaker. The failures are counted for all loaders that use the
+     * same HTTP client, but the setting only applies to this loader.
+     * 
+     * @param threshold
+     *            The number of consecutive failures.
+     */
+    public void setCircuitBreakerThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+        circuitBreakerThreshold = threshold;
+    }
+
+    /**
+     * @return The time in milliseconds for which no requests are sent to a
+     *         host after too many failures.
+     */
+    public long getCircuitBreakerDelay() {
+        return circuitBreakerDelay;
+    }
+
+    /**
+     * Sets the time in milliseconds for which no requests are sent to a host
+     * after too many failures, and between trial requests while it keeps
+     * failing. The setting only applies to this loader.
+     * 
+     * @param delay
+     *            The time to wait before sending a request again.
+     */
+    public void setCircuitBreakerDelay(long delay) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("delay must not be negative");
+        }
+        circuitBreakerDelay = delay;
+    }
+
+    /**
+     * Forgets all failures to load documents by the loaders that use the same
+     * HTTP client as this one, so that the next loads are attempted again.
+     */
+    public void clearFailures() {
+        failures.clear();
+    }
+
+    /**
+     * The default maximum number of documents loaded concurrently from a
+     * single host by {@link #loadDocumentAsync(String)}.
+     */
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 4;
+
+    private volatile int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+    private final ConcurrentMap<String, HostQueue> hostQueues = new ConcurrentHashMap<String, HostQueue>();
+
+    private volatile ExecutorService executor = null;
+
+    /**
+     * Loads a document in the background, using {@link #loadDocument(String)}
+     * on the executor of this loader. At most
+     * {@link #getMaxRequestsPerHost()} documents are loaded by this loader
+     * from the same host at a time. The others wait in a queue for that host
+     * without holding a thread of the executor.
+     * 
+     * @param url
+     *            The URL of the document to load.
+     * @return A Future for the loaded document. If loading fails,
+     *         {@link Future#get()} throws an {@link ExecutionException} caused
+     *         by the {@link JsonLdError}.
+     */
+    public Future<RemoteDocument> loadDocumentAsync(final String url) {
+        final FutureTask<RemoteDocument> task = new FutureTask<RemoteDocument>(
+                new Callable<RemoteDocument>() {
+                    @Override
+                    public RemoteDocument call() throws JsonLdError {
+                        return loadDocument(url);
+                    }
+                });
+        getHostQueue(url).submit(task);
+        return task;
+    }
+
+    /**
+     * The loads from a single host that wait for one of the
+     * {@link #getMaxRequestsPerHost()} running loads to finish.
+     */
+    private final class HostQueue {
+        private final Queue<FutureTask<RemoteDocument>> waiting = new LinkedList<FutureTask<RemoteDocument>>();
+        private int running = 0;
+
+        private void submit(FutureTask<RemoteDocument> task) {
+            synchronized (this) {
+                waiting.add(task);
+            }
+            startWaiting();
+        }
+
+        private void startWaiting() {
+            final List<FutureTask<RemoteDocument>> started = new ArrayList<FutureTask<RemoteDocument>>();
+            synchronized (this) {
+                while (running < maxRequestsPerHost && !waiting.isEmpty()) {
+                    final FutureTask<RemoteDocument> task = waiting.remove();
+                    // cancelled while waiting
+                    if (!task.isDone()) {
+                        running++;
+                        started.add(task);
+                    }
+                }
+            }
+            for (final FutureTask<RemoteDocument> task : started) {
+                start(task);
+            }
+        }
+
+        private void start(final FutureTask<RemoteDocument> task) {
+            final Runnable runnable = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        synchronized (HostQueue.this) {
+                            running--;
+                        }
+                        startWaiting();
+                    }
+                }
+            };
+            try {
+                getExecutor().execute(runnable);
+            } catch (final RejectedExecutionException e) {
+                runnable.run();
+            }
+        }
+    }
+
+    /**
+     * Waits for a document loaded by {@link #loadDocumentAsync(String)}.
+     * 
+     * @param future
+     *            The Future returned by {@link #loadDocumentAsync(String)}.
+     * @param url
+     *            The URL of the document.
+     * @return The loaded document.
+     * @throws JsonLdError
+     *             The error that loading the document failed with, or
+     *             LOADING_REMOTE_CONTEXT_FAILED if it failed with anything
+     *             else or waiting was interrupted.
+     */
+    static RemoteDocument await(Future<RemoteDocument> future, String url) throws JsonLdError {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, url);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof JsonLdError) {
+                throw (JsonLdError) e.getCause();
+            }
+            throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, url);
+        }
+    }
+
+    private static String getHost(String url) {
+        try {
+            return new URL(url).getHost();
+        } catch (final MalformedURLException e) {
+            return "";
+        }
+    }
+
+    private HostQueue getHostQueue(String url) {
+        final String host = getHost(url);
+        HostQueue queue = hostQueues.get(host);
+        if (queue == null) {
+            queue = new HostQueue();
+            final HostQueue existing = hostQueues.putIfAbsent(host, queue);
+            if (existing != null) {
+                queue = existing;
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * @return The maximum number of documents loaded concurrently by this
+     *         loader from a single host.
+     */
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of documents loaded concurrently by this loader
+     * from a single host, which applies to the loads that have not started
+     * yet.
+     * 
+     * @param max
+     *            The maximum number of concurrent requests per host.
+     */
+    public void setMaxRequestsPerHost(int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("max must be positive");
+        }
+        maxRequestsPerHost = max;
+        for (final HostQueue queue : hostQueues.values()) {
+            queue.startWaiting();
+        }
+    }
+
+    /**
+     * @return The executor used by {@link #loadDocumentAsync(String)}, which
+     *         is shared by all loaders unless one was set using
+     *         {@link #setExecutor(ExecutorService)}.
+     */
+    public ExecutorService getExecutor() {
+        final ExecutorService result = executor;
+        return result != null ? result : DefaultExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Sets the executor used by {@link #loadDocumentAsync(String)}. The loader
+     * does not shut it down.
+     * 
+     * @param executor
+     *            The executor, or null to use the shared default executor.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Lazily creates the default executor, which uses a virtual thread per
+     * task when the JVM supports them, and otherwise a cached pool of daemon
+     * threads.
+     */
+    private static class DefaultExecutorHolder {
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            try {
+                return (ExecutorService) Executors.class.getMethod(
+                        "newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (final Exception e) {
+                // virtual threads are not available before Java 21
+            }
+            final AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    final Thread thread = new Thread(r, "jsonld-java-loader-"
+                            + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
         }
-        return doc;
     }
 
     /**
@@ -54,9 +719,29 @@ public class DocumentLoader {
      *             If there was an error resolving the resource.
      */
     public static Object fromURL(java.net.URL url) throws JsonParseException, IOException {
+        return fromURL(url, getHttpClient());
+    }
+
+    /**
+     * Returns a Map, List, or String containing the contents of the JSON
+     * resource resolved from the JsonLdUrl, using the given HTTP client.
+     * 
+     * @param url
+     *            The JsonLdUrl to resolve
+     * @param httpClient
+     *            The HTTP client for http and https URLs.
+     * @return The Map, List, or String that represent the JSON resource
+     *         resolved from the JsonLdUrl
+     * @throws JsonParseException
+     *             If the JSON was not valid.
+     * @throws IOException
+     *             If there was an error resolving the resource.
+     */
+    public static Object fromURL(java.net.URL url, HttpClient httpClient)
+            throws JsonParseException, IOException {
 
         final MappingJsonFactory jsonFactory = new MappingJsonFactory();
-        final InputStream in = openStreamFromURL(url);
+        final InputStream in = openStreamFromURL(url, httpClient);
         try {
             final JsonParser parser = jsonFactory.createParser(in);
             try {
@@ -91,6 +776,23 @@ public class DocumentLoader {
      *             If there was an error resolving the {@link java.net.URL}.
      */
     public static InputStream openStreamFromURL(java.net.URL url) throws IOException {
+        return openStreamFromURL(url, getHttpClient());
+    }
+
+    /**
+     * Opens an {@link InputStream} for the given {@link java.net.URL} like
+     * {@link #openStreamFromURL(URL)}, using the given HTTP client.
+     * 
+     * @param url
+     *            The {@link java.net.URL} identifying the source.
+     * @param httpClient
+     *            The HTTP client for http and https URLs.
+     * @return An InputStream containing the contents of the source.
+     * @throws IOException
+     *             If there was an error resolving the {@link java.net.URL}.
+     */
+    public static InputStream openStreamFromURL(java.net.URL url, HttpClient httpClient)
+            throws IOException {
         final String protocol = url.getProtocol();
         if (!protocol.equalsIgnoreCase("http") && !protocol.equalsIgnoreCase("https")) {
             // Can't use the HTTP client for those!
@@ -103,9 +805,11 @@ public class DocumentLoader {
         // or whatever is available
         request.addHeader("Accept", ACCEPT_HEADER);
 
-        final HttpResponse response = getHttpClient().execute(request);
+        final HttpResponse response = httpClient.execute(request);
         final int status = response.getStatusLine().getStatusCode();
         if (status != 200 && status != 203) {
+            // release the connection
+            EntityUtils.consume(response.getEntity());
             throw new IOException("Can't retrieve " + url + ", status code: " + status);
         }
         return response.getEntity().getContent();
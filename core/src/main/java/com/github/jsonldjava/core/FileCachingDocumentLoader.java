@@ -0,0 +1,288 @@
+package com.github.jsonldjava.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+/**
+ * A {@link DocumentLoader} that keeps the documents it loads over HTTP in a
+ * directory, so that they survive restarts.
+ *
+ * A cached document is used as is for {@link #getMaxAge()} milliseconds after
+ * it was fetched. After that it is revalidated with a conditional request
+ * using its ETag and Last-Modified headers, and still used if the server
+ * cannot be reached. In offline mode, documents are only ever served from the
+ * cache.
+ *
+ * Documents that are not loaded over HTTP, such as file: and jar: URLs, are
+ * not cached.
+ */
+public class FileCachingDocumentLoader extends DocumentLoader {
+
+    /**
+     * The default time for which a cached document is used without
+     * revalidating it, one hour.
+     */
+    public static final long DEFAULT_MAX_AGE = 60 * 60 * 1000L;
+
+    private final File directory;
+    private volatile long maxAge = DEFAULT_MAX_AGE;
+    private volatile boolean offline = false;
+
+    /**
+     * Creates a loader that caches documents in the given directory, which is
+     * created if it does not exist. The directory may be shared by several
+     * loaders and processes.
+     *
+     * @param directory
+     *            The directory to cache documents in.
+     */
+    public FileCachingDocumentLoader(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a loader that caches documents in the given directory, and
+     * has its own HTTP client.
+     *
+     * @param directory
+     *            The directory to cache documents in.
+     * @param httpClientOptions
+     *            The settings of the HTTP client.
+     */
+    public FileCachingDocumentLoader(File directory, HttpClientOptions httpClientOptions) {
+        super(httpClientOptions);
+        this.directory = directory;
+    }
+
+    /**
+     * @return The directory the documents are cached in.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return The time in milliseconds for which a cached document is used
+     *         without revalidating it.
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Sets the time in milliseconds for which a cached document is used
+     * without revalidating it. Zero revalidates cached documents every time
+     * they are loaded.
+     *
+     * @param maxAge
+     *            The maximum age of a cached document.
+     */
+    public void setMaxAge(long maxAge) {
+        if (maxAge < 0) {
+            throw new IllegalArgumentException("maxAge must not be negative");
+        }
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * @return true if documents are only served from the cache.
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Sets whether documents are only served from the cache, in which case
+     * loading a document that is not cached fails.
+     *
+     * @param offline
+     *            true to never access the network.
+     */
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+
+    @Override
+    public RemoteDocument loadDocument(String url) throws JsonLdError {
+        if (!url.startsWith("http:") && !url.startsWith("https:")) {
+            return super.loadDocument(url);
+        }
+        final File file = getFile(url);
+        final Map<String, Object> entry = read(file, url);
+        if (entry != null) {
+            final Number fetched = (Number) entry.get("fetched");
+            if (offline || System.currentTimeMillis() - fetched.longValue() < maxAge) {
+                return new RemoteDocument(url, entry.get("document"));
+            }
+        } else if (offline) {
+            throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED,
+                    "Not cached while offline: " + url);
+        }
+        try {
+            return new RemoteDocument(url, fetch(url, file, entry));
+        } catch (final IOException e) {
+            if (entry != null) {
+                // a stale document is better than none
+                return new RemoteDocument(url, entry.get("document"));
+            }
+            throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, url, e);
+        }
+    }
+
+    /**
+     * Fetches a document through {@link #fetch(String, Callable)}, so that
+     * concurrent loads of the same URL share a request, using a conditional
+     * request if it is cached, and updates the cache.
+     */
+    private Object fetch(final String url, final File file, final Map<String, Object> entry)
+            throws IOException {
+        return fetch(url, new Callable<Object>() {
+            @Override
+            public Object call() throws IOException {
+                return request(url, file, entry);
+            }
+        });
+    }
+
+    private Object request(String url, File file, Map<String, Object> entry) throws IOException {
+        final HttpGet request = new HttpGet(url);
+        request.addHeader("Accept", ACCEPT_HEADER);
+        if (entry != null) {
+            if (entry.get("etag") != null) {
+                request.addHeader("If-None-Match", (String) entry.get("etag"));
+            }
+            if (entry.get("lastModified") != null) {
+                request.addHeader("If-Modified-Since", (String) entry.get("lastModified"));
+            }
+        }
+        final HttpResponse response = getLoaderHttpClient().execute(request);
+        try {
+            final int status = response.getStatusLine().getStatusCode();
+            final Map<String, Object> result = new LinkedHashMap<String, Object>();
+            result.put("url", url);
+            if (status == HttpStatus.SC_NOT_MODIFIED && entry != null) {
+                result.put("etag", header(response, "ETag", entry.get("etag")));
+                result.put("lastModified",
+                        header(response, "Last-Modified", entry.get("lastModified")));
+                result.put("document", entry.get("document"));
+            } else if (status == HttpStatus.SC_OK
+                    || status == HttpStatus.SC_NON_AUTHORITATIVE_INFORMATION) {
+                result.put("etag", header(response, "ETag", null));
+                result.put("lastModified", header(response, "Last-Modified", null));
+                final InputStream in = response.getEntity().getContent();
+                try {
+                    result.put("document", JsonUtils.fromInputStream(in));
+                } finally {
+                    in.close();
+                }
+            } else {
+                throw new IOException("Can't retrieve " + url + ", status code: " + status);
+            }
+            result.put("fetched", System.currentTimeMillis());
+            try {
+                write(file, result);
+            } catch (final IOException e) {
+                // the document is still usable, it just isn't cached
+            }
+            return result.get("document");
+        } finally {
+            EntityUtils.consume(response.getEntity());
+        }
+    }
+
+    private static Object header(HttpResponse response, String name, Object defaultValue) {
+        final Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : defaultValue;
+    }
+
+    /**
+     * @return The cache file of the given URL, named after its SHA-1 hash.
+     */
+    private File getFile(String url) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-1").digest(url.getBytes("UTF-8"));
+            final StringBuilder name = new StringBuilder(hash.length * 2 + 5);
+            for (final byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16));
+                name.append(Character.forDigit(b & 0xf, 16));
+            }
+            return new File(directory, name.append(".json").toString());
+        } catch (final NoSuchAlgorithmException e) {
+            // every JVM has to support SHA-1
+            throw new IllegalStateException(e);
+        } catch (final IOException e) {
+            // every JVM has to support UTF-8
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return The cache entry in the given file, or null if there is no valid
+     *         entry for the given URL.
+     */
+    private static Map<String, Object> read(File file, String url) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            final InputStream in = new FileInputStream(file);
+            try {
+                final Object entry = JsonUtils.fromInputStream(in);
+                if (entry instanceof Map && url.equals(((Map<String, Object>) entry).get("url"))
+                        && ((Map<String, Object>) entry).get("fetched") instanceof Number) {
+                    return (Map<String, Object>) entry;
+                }
+            } finally {
+                in.close();
+            }
+        } catch (final IOException e) {
+            // treat a damaged entry as missing, it will be overwritten
+        }
+        return null;
+    }
+
+    /**
+     * Writes a cache entry to a temporary file first, so that other threads
+     * and processes never see a partially written entry.
+     */
+    private void write(File file, Map<String, Object> entry) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Can't create cache directory " + directory);
+        }
+        final File temp = File.createTempFile("entry", ".tmp", directory);
+        try {
+            final OutputStream out = new FileOutputStream(temp);
+            try {
+                out.write(JsonUtils.toString(entry).getBytes("UTF-8"));
+            } finally {
+                out.close();
+            }
+            if (!temp.renameTo(file)) {
+                // renameTo does not replace existing files on all platforms
+                file.delete();
+                if (!temp.renameTo(file)) {
+                    throw new IOException("Can't write cache entry " + file);
+                }
+            }
+        } finally {
+            temp.delete();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.jsonldjava.core;
+
+/**
+ * The settings of the HTTP client of a {@link DocumentLoader} created with
+ * {@link DocumentLoader#DocumentLoader(HttpClientOptions)}, which has its own
+ * connection pool and cache instead of sharing the default ones.
+ *
+ * Times are in milliseconds.
+ */
+public class HttpClientOptions {
+
+    private int maxConnectionsPerRoute = 5;
+    private int maxConnections = 20;
+    private int connectTimeout = 0;
+    private int socketTimeout = 0;
+    private long keepAlive = -1;
+    private int maxCacheEntries = 1000;
+    private int maxCacheObjectSize = 1024 * 128;
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * @param maxConnectionsPerRoute
+     *            The maximum number of pooled connections to a single host.
+     */
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        if (maxConnectionsPerRoute < 1) {
+            throw new IllegalArgumentException("maxConnectionsPerRoute must be positive");
+        }
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @param maxConnections
+     *            The maximum number of pooled connections to all hosts.
+     */
+    public void setMaxConnections(int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be positive");
+        }
+        this.maxConnections = maxConnections;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * @param connectTimeout
+     *            The time to wait for a connection to be established, or 0 to
+     *            wait indefinitely.
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        if (connectTimeout < 0) {
+            throw new IllegalArgumentException("connectTimeout must not be negative");
+        }
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    /**
+     * @param socketTimeout
+     *            The time to wait for data on an established connection, or 0
+     *            to wait indefinitely.
+     */
+    public void setSocketTimeout(int socketTimeout) {
+        if (socketTimeout < 0) {
+            throw new IllegalArgumentException("socketTimeout must not be negative");
+        }
+        this.socketTimeout = socketTimeout;
+    }
+
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * @param keepAlive
+     *            The longest time an idle connection is kept open, or a
+     *            negative value to keep it for as long as the server allows.
+     */
+    public void setKeepAlive(long keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public int getMaxCacheEntries() {
+        return maxCacheEntries;
+    }
+
+    /**
+     * @param maxCacheEntries
+     *            The maximum number of responses kept in the HTTP cache, or 0
+     *            to not cache responses.
+     */
+    public void setMaxCacheEntries(int maxCacheEntries) {
+        if (maxCacheEntries < 0) {
+            throw new IllegalArgumentException("maxCacheEntries must not be negative");
+        }
+        this.maxCacheEntries = maxCacheEntries;
+    }
+
+    public int getMaxCacheObjectSize() {
+        return maxCacheObjectSize;
+    }
+
+    /**
+     * @param maxCacheObjectSize
+     *            The size in bytes of the largest response kept in the HTTP
+     *            cache.
+     */
+    public void setMaxCacheObjectSize(int maxCacheObjectSize) {
+        if (maxCacheObjectSize < 0) {
+            throw new IllegalArgumentException("maxCacheObjectSize must not be negative");
+        }
+        this.maxCacheObjectSize = maxCacheObjectSize;
+    }
+}
@@ -10,12 +10,20 @@ import static com.github.jsonldjava.core.JsonLdUtils.isKeyword;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -100,23 +108,21 @@ public class JsonLdApi {
     }
 
     /**
-     * Initializes this object by cloning the input object using
-     * {@link JsonLdUtils#clone(Object)}, and by parsing the context using
-     * {@link Context#parse(Object)}.
+     * Initializes this object with the input object, and by parsing the
+     * context using {@link Context#parse(Object)}. The input is not copied, as
+     * none of the operations modify it.
      * 
      * @param input
-     *            The initial object, which is to be cloned and used in
-     *            operations.
+     *            The initial object, which is to be used in operations.
      * @param context
      *            The context object, which is to be parsed and used in
      *            operations.
      * @throws JsonLdError
-     *             If there was an error cloning the object, or in parsing the
-     *             context.
+     *             If there was an error in parsing the context.
      */
     private void initialize(Object input, Object context) throws JsonLdError {
         if (input instanceof List || input instanceof Map) {
-            this.value = JsonLdUtils.clone(input);
+            this.value = input;
         }
         // TODO: string/IO input
         this.context = new Context(opts);
@@ -155,12 +161,16 @@ public class JsonLdApi {
             boolean compactArrays) throws JsonLdError {
         // 2)
         if (element instanceof List) {
+            final List<Object> items = (List<Object>) element;
+            final Iterator<Object> compactedItems = isParallel(items.size()) ? compactInParallel(
+                    activeCtx, activeProperty, items, compactArrays).iterator() : null;
             // 2.1)
             final List<Object> result = new ArrayList<Object>();
             // 2.2)
-            for (final Object item : (List<Object>) element) {
+            for (final Object item : items) {
                 // 2.2.1)
-                final Object compactedItem = compact(activeCtx, activeProperty, item, compactArrays);
+                final Object compactedItem = compactedItems != null ? compactedItems.next()
+                        : compact(activeCtx, activeProperty, item, compactArrays);
                 // 2.2.2)
                 if (compactedItem != null) {
                     result.add(compactedItem);
@@ -194,7 +204,9 @@ public class JsonLdApi {
             final Map<String, Object> result = new LinkedHashMap<String, Object>();
             // 7)
             final List<String> keys = new ArrayList<String>(elem.keySet());
-            Collections.sort(keys);
+            if (opts.getOrdered()) {
+                Collections.sort(keys);
+            }
             for (final String expandedProperty : keys) {
                 final Object expandedValue = elem.get(expandedProperty);
 
@@ -447,6 +459,50 @@ public class JsonLdApi {
         return element;
     }
 
+    /**
+     * Compacts the members of a large array in tasks on the executor of the
+     * options. The inverse context is created before the tasks are started,
+     * so that they all share it.
+     * 
+     * @param activeCtx
+     *            The active context.
+     * @param activeProperty
+     *            The active property of the array.
+     * @param items
+     *            The members of the array.
+     * @param compactArrays
+     *            True to compact arrays.
+     * @return The compacted members, in the same order, including null
+     *         values.
+     * @throws JsonLdError
+     *             If there was an error compacting a member.
+     */
+    private List<Object> compactInParallel(final Context activeCtx, final String activeProperty,
+            List<Object> items, final boolean compactArrays) throws JsonLdError {
+        activeCtx.getCompactionIndex();
+        final List<Callable<List<Object>>> tasks = new ArrayList<Callable<List<Object>>>();
+        final int taskSize = opts.getParallelThreshold();
+        for (int start = 0; start < items.size(); start += taskSize) {
+            final List<Object> slice = items.subList(start,
+                    Math.min(items.size(), start + taskSize));
+            tasks.add(new Callable<List<Object>>() {
+                @Override
+                public List<Object> call() throws JsonLdError {
+                    final List<Object> compacted = new ArrayList<Object>(slice.size());
+                    for (final Object item : slice) {
+                        compacted.add(compact(activeCtx, activeProperty, item, compactArrays));
+                    }
+                    return compacted;
+                }
+            });
+        }
+        final List<Object> result = new ArrayList<Object>(items.size());
+        for (final List<Object> compacted : invokeInOrder(tasks)) {
+            result.addAll(compacted);
+        }
+        return result;
+    }
+
     /**
      * Compaction Algorithm
      * 
@@ -499,12 +555,16 @@ public class JsonLdApi {
 
         // 3)
         if (element instanceof List) {
+            final List<Object> items = (List<Object>) element;
+            final Iterator<Object> expandedItems = isParallel(items.size()) ? expandInParallel(
+                    activeCtx, activeProperty, items).iterator() : null;
             // 3.1)
             final List<Object> result = new ArrayList<Object>();
             // 3.2)
-            for (final Object item : (List<Object>) element) {
+            for (final Object item : items) {
                 // 3.2.1)
-                final Object v = expand(activeCtx, activeProperty, item);
+                final Object v = expandedItems != null ? expandedItems.next() : expand(
+                        activeCtx, activeProperty, item);
                 // 3.2.2)
                 if (("@list".equals(activeProperty) || "@list".equals(activeCtx
                         .getContainer(activeProperty)))
@@ -530,13 +590,15 @@ public class JsonLdApi {
             final Map<String, Object> elem = (Map<String, Object>) element;
             // 5)
             if (elem.containsKey("@context")) {
-                activeCtx = activeCtx.parse(elem.get("@context"));
+                activeCtx = deriveContext(activeCtx, elem.get("@context"));
             }
             // 6)
             Map<String, Object> result = new LinkedHashMap<String, Object>();
             // 7)
             final List<String> keys = new ArrayList<String>(elem.keySet());
-            Collections.sort(keys);
+            if (opts.getOrdered()) {
+                Collections.sort(keys);
+            }
             for (final String key : keys) {
                 final Object value = elem.get(key);
                 // 7.1)
@@ -776,7 +838,9 @@ public class JsonLdApi {
                     // 7.6.2)
                     final List<String> indexKeys = new ArrayList<String>(
                             ((Map<String, Object>) value).keySet());
-                    Collections.sort(indexKeys);
+                    if (opts.getOrdered()) {
+                        Collections.sort(indexKeys);
+                    }
                     for (final String index : indexKeys) {
                         Object indexValue = ((Map<String, Object>) value).get(index);
                         // 7.6.2.1)
@@ -963,6 +1027,182 @@ public class JsonLdApi {
         }
     }
 
+    /**
+     * Expands the members of a large array in tasks on the executor of the
+     * options.
+     * 
+     * @param activeCtx
+     *            The active context.
+     * @param activeProperty
+     *            The active property of the array.
+     * @param items
+     *            The members of the array.
+     * @return The expanded members, in the same order, before lists are
+     *         flattened and null values are dropped.
+     * @throws JsonLdError
+     *             If there was an error expanding a member.
+     */
+    private List<Object> expandInParallel(final Context activeCtx, final String activeProperty,
+            List<Object> items) throws JsonLdError {
+        final List<Callable<List<Object>>> tasks = new ArrayList<Callable<List<Object>>>();
+        final int taskSize = opts.getParallelThreshold();
+        for (int start = 0; start < items.size(); start += taskSize) {
+            final List<Object> slice = items.subList(start,
+                    Math.min(items.size(), start + taskSize));
+            tasks.add(new Callable<List<Object>>() {
+                @Override
+                public List<Object> call() throws JsonLdError {
+                    final List<Object> expanded = new ArrayList<Object>(slice.size());
+                    for (final Object item : slice) {
+                        expanded.add(expand(activeCtx, activeProperty, item));
+                    }
+                    return expanded;
+                }
+            });
+        }
+        final List<Object> result = new ArrayList<Object>(items.size());
+        for (final List<Object> expanded : invokeInOrder(tasks)) {
+            result.addAll(expanded);
+        }
+        return result;
+    }
+
+    /**
+     * @param size
+     *            The number of members of an array.
+     * @return Whether the array should be processed in parallel.
+     */
+    boolean isParallel(int size) {
+        return opts.getExecutor() != null && size > opts.getParallelThreshold();
+    }
+
+    /**
+     * Runs tasks on the executor of the options and returns their results in
+     * the same order. A task that has not been started by the executor by the
+     * time its result is needed is run on the calling thread instead, so that
+     * tasks can run more tasks without exhausting a bounded executor.
+     * 
+     * @param tasks
+     *            The tasks to run.
+     * @return The results of the tasks.
+     * @throws JsonLdError
+     *             If a task failed with a JsonLdError, or the calling thread
+     *             was interrupted.
+     */
+    <T> List<T> invokeInOrder(List<? extends Callable<T>> tasks) throws JsonLdError {
+        final List<FutureTask<T>> futures = new ArrayList<FutureTask<T>>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            futures.add(new FutureTask<T>(task));
+        }
+        // the first task is always run by the calling thread
+        for (final FutureTask<T> future : futures.subList(1, futures.size())) {
+            try {
+                opts.getExecutor().execute(future);
+            } catch (final RejectedExecutionException e) {
+                // run by the calling thread below
+            }
+        }
+        final List<T> results = new ArrayList<T>(tasks.size());
+        try {
+            for (final FutureTask<T> future : futures) {
+                future.run();
+                results.add(future.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonLdError(Error.UNKNOWN_ERROR, e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof JsonLdError) {
+                throw (JsonLdError) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof java.lang.Error) {
+                throw (java.lang.Error) cause;
+            }
+            throw new JsonLdError(Error.UNKNOWN_ERROR, cause);
+        } finally {
+            for (final FutureTask<T> future : futures.subList(results.size(), futures.size())) {
+                future.cancel(false);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Contexts derived during expansion, by active context and then by the
+     * value of the local context that was applied to it. The active contexts
+     * are compared by identity, as they are never modified once derived.
+     * Access is synchronized on the map, as expansion may run on several
+     * threads, but the contexts are parsed outside the lock.
+     */
+    private final Map<Context, Map<Object, FutureTask<Context>>> derivedContexts = new IdentityHashMap<Context, Map<Object, FutureTask<Context>>>();
+
+    /**
+     * Returns the result of {@link Context#parse(Object)} for the given active
+     * and local contexts, reusing the result of an earlier call for an equal
+     * local context on the same active context. Concurrent calls for the same
+     * contexts share a single parse, and a failed parse is tried again by the
+     * next call.
+     * 
+     * @param activeCtx
+     *            The active context.
+     * @param localContext
+     *            The local context.
+     * @return The derived context, which must not be modified.
+     * @throws JsonLdError
+     *             If there is an error parsing the local context.
+     */
+    Context deriveContext(final Context activeCtx, final Object localContext)
+            throws JsonLdError {
+        FutureTask<Context> task;
+        boolean run = false;
+        synchronized (derivedContexts) {
+            Map<Object, FutureTask<Context>> derived = derivedContexts.get(activeCtx);
+            if (derived == null) {
+                derived = new HashMap<Object, FutureTask<Context>>();
+                derivedContexts.put(activeCtx, derived);
+            }
+            task = derived.get(localContext);
+            if (task == null) {
+                task = new FutureTask<Context>(new Callable<Context>() {
+                    @Override
+                    public Context call() throws JsonLdError {
+                        return activeCtx.parse(localContext);
+                    }
+                });
+                derived.put(localContext, task);
+                run = true;
+            }
+        }
+        if (run) {
+            // NOTE: parsing may load remote contexts, so other threads must
+            // not wait on the lock for it
+            task.run();
+        }
+        try {
+            return task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonLdError(Error.UNKNOWN_ERROR, e);
+        } catch (final ExecutionException e) {
+            if (run) {
+                synchronized (derivedContexts) {
+                    derivedContexts.get(activeCtx).remove(localContext);
+                }
+            }
+            final Throwable cause = e.getCause();
+            if (cause instanceof JsonLdError) {
+                throw (JsonLdError) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof java.lang.Error) {
+                throw (java.lang.Error) cause;
+            }
+            throw new JsonLdError(Error.UNKNOWN_ERROR, cause);
+        }
+    }
+
     /**
      * Expansion Algorithm
      * 
@@ -989,7 +1229,158 @@ public class JsonLdApi {
      */
 
     void generateNodeMap(Object element, Map<String, Object> nodeMap) throws JsonLdError {
-        generateNodeMap(element, nodeMap, "@default", null, null, null);
+        if (element instanceof List && isParallel(((List<Object>) element).size())) {
+            generateNodeMapInParallel((List<Object>) element, nodeMap);
+        } else {
+            generateNodeMap(element, nodeMap, "@default", null, null, null);
+        }
+    }
+
+    /**
+     * The node map of a slice of a large array, with the blank node
+     * identifiers generated for the slice.
+     */
+    private static class NodeMapSlice {
+        final Map<String, Object> nodeMap = new LinkedHashMap<String, Object>();
+        /**
+         * The identifier each generated blank node identifier was generated
+         * for, or null for fresh ones, in the order they were generated.
+         */
+        String[] labelled;
+    }
+
+    /**
+     * Generates the node maps of slices of a large array in tasks on the
+     * executor of the options, each with its own blank node identifiers, and
+     * merges them into the node map in input order. The blank node
+     * identifiers of each slice are replaced by ones from this instance, which
+     * are generated in the same order as they would have been without
+     * slicing, so the result is the same.
+     * 
+     * @param elements
+     *            The members of the array.
+     * @param nodeMap
+     *            The node map to add the nodes to.
+     * @throws JsonLdError
+     *             If there was an error generating a node map.
+     */
+    private void generateNodeMapInParallel(List<Object> elements, Map<String, Object> nodeMap)
+            throws JsonLdError {
+        final List<Callable<NodeMapSlice>> tasks = new ArrayList<Callable<NodeMapSlice>>();
+        final int taskSize = opts.getParallelThreshold();
+        for (int start = 0; start < elements.size(); start += taskSize) {
+            final List<Object> elems = elements.subList(start,
+                    Math.min(elements.size(), start + taskSize));
+            tasks.add(new Callable<NodeMapSlice>() {
+                @Override
+                public NodeMapSlice call() throws JsonLdError {
+                    final JsonLdApi api = new JsonLdApi(opts);
+                    final NodeMapSlice slice = new NodeMapSlice();
+                    api.generateNodeMap(elems, slice.nodeMap, "@default", null, null, null);
+                    slice.labelled = new String[api.blankNodeCounter];
+                    for (final Map.Entry<String, String> entry : api.blankNodeIdentifierMap
+                            .entrySet()) {
+                        slice.labelled[Integer.parseInt(entry.getValue().substring(3))] = entry
+                                .getKey();
+                    }
+                    return slice;
+                }
+            });
+        }
+        for (final NodeMapSlice slice : invokeInOrder(tasks)) {
+            final Map<String, String> labels = new HashMap<String, String>();
+            for (int i = 0; i < slice.labelled.length; i++) {
+                labels.put("_:b" + i, generateBlankNodeIdentifier(slice.labelled[i]));
+            }
+            mergeNodeMap((Map<String, Object>) relabel(slice.nodeMap, labels), nodeMap);
+        }
+    }
+
+    /**
+     * Replaces blank node identifiers in the identifiers, types and property
+     * names of a node map, or of a part of it.
+     * 
+     * @param value
+     *            The node map, or a part of it.
+     * @param labels
+     *            The new blank node identifiers, by the old ones.
+     * @return A copy of the value with the identifiers replaced.
+     */
+    private static Object relabel(Object value, Map<String, String> labels) {
+        if (value instanceof String) {
+            final String label = labels.get(value);
+            return label != null ? label : value;
+        } else if (value instanceof List) {
+            final List<Object> result = new ArrayList<Object>(((List<Object>) value).size());
+            for (final Object item : (List<Object>) value) {
+                result.add(relabel(item, labels));
+            }
+            return result;
+        } else if (value instanceof Map) {
+            final Map<String, Object> result = new LinkedHashMap<String, Object>();
+            for (final Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                final String key = entry.getKey();
+                if ("@value".equals(key) || "@language".equals(key) || "@index".equals(key)) {
+                    result.put(key, entry.getValue());
+                } else {
+                    result.put((String) relabel(key, labels), relabel(entry.getValue(), labels));
+                }
+            }
+            return result;
+        }
+        return value;
+    }
+
+    /**
+     * Merges the nodes of one node map into another, in the same way as
+     * {@link #generateNodeMap(Object, Map, String, Object, String, Map)} merges
+     * the properties of nodes with the same identifier.
+     * 
+     * @param source
+     *            The node map to merge.
+     * @param nodeMap
+     *            The node map to merge it into.
+     * @throws JsonLdError
+     *             If a node has conflicting indexes.
+     */
+    private static void mergeNodeMap(Map<String, Object> source, Map<String, Object> nodeMap)
+            throws JsonLdError {
+        for (final Map.Entry<String, Object> graphEntry : source.entrySet()) {
+            Map<String, Object> graph = (Map<String, Object>) nodeMap.get(graphEntry.getKey());
+            if (graph == null) {
+                graph = new LinkedHashMap<String, Object>();
+                nodeMap.put(graphEntry.getKey(), graph);
+            }
+            for (final Object value : ((Map<String, Object>) graphEntry.getValue()).values()) {
+                final Map<String, Object> node = (Map<String, Object>) value;
+                final String id = (String) node.get("@id");
+                final Map<String, Object> target = (Map<String, Object>) graph.get(id);
+                if (target == null) {
+                    graph.put(id, node);
+                    continue;
+                }
+                for (final Map.Entry<String, Object> entry : node.entrySet()) {
+                    final String property = entry.getKey();
+                    if ("@id".equals(property)) {
+                        continue;
+                    } else if ("@index".equals(property)) {
+                        if (!target.containsKey("@index")) {
+                            target.put("@index", entry.getValue());
+                        } else if (!JsonLdUtils.deepCompare(target.get("@index"),
+                                entry.getValue())) {
+                            throw new JsonLdError(Error.CONFLICTING_INDEXES);
+                        }
+                        continue;
+                    }
+                    if (!target.containsKey(property)) {
+                        target.put(property, new ArrayList<Object>());
+                    }
+                    for (final Object item : (List<Object>) entry.getValue()) {
+                        JsonLdUtils.mergeValue(target, property, item);
+                    }
+                }
+            }
+        }
     }
 
     void generateNodeMap(Object element, Map<String, Object> nodeMap, String activeGraph)
@@ -1010,7 +1401,9 @@ public class JsonLdApi {
         }
 
         // for convenience
-        final Map<String, Object> elem = (Map<String, Object>) element;
+        // NOTE: elem is part of the caller's input, so it must not be
+        // modified, and is copied if it has to be
+        Map<String, Object> elem = (Map<String, Object>) element;
 
         // 2)
         if (!nodeMap.containsKey(activeGraph)) {
@@ -1031,17 +1424,22 @@ public class JsonLdApi {
                 oldTypes = new ArrayList<String>();
                 oldTypes.add((String) elem.get("@type"));
             }
+            boolean relabelled = false;
             for (final String item : oldTypes) {
                 if (item.startsWith("_:")) {
                     newTypes.add(generateBlankNodeIdentifier(item));
+                    relabelled = true;
                 } else {
                     newTypes.add(item);
                 }
             }
-            if (elem.get("@type") instanceof List) {
-                elem.put("@type", newTypes);
-            } else {
-                elem.put("@type", newTypes.get(0));
+            if (relabelled) {
+                elem = new LinkedHashMap<String, Object>(elem);
+                if (elem.get("@type") instanceof List) {
+                    elem.put("@type", newTypes);
+                } else {
+                    elem.put("@type", newTypes.get(0));
+                }
             }
         }
 
@@ -1076,7 +1474,7 @@ public class JsonLdApi {
         // 6)
         else {
             // 6.1)
-            String id = (String) elem.remove("@id");
+            String id = (String) elem.get("@id");
             if (id != null) {
                 if (id.startsWith("_:")) {
                     id = generateBlankNodeIdentifier(id);
@@ -1121,13 +1519,13 @@ public class JsonLdApi {
             node = (Map<String, Object>) graph.get(id);
             // 6.7)
             if (elem.containsKey("@type")) {
-                for (final Object type : (List<Object>) elem.remove("@type")) {
+                for (final Object type : (List<Object>) elem.get("@type")) {
                     JsonLdUtils.mergeValue(node, "@type", type);
                 }
             }
             // 6.8)
             if (elem.containsKey("@index")) {
-                final Object elemIndex = elem.remove("@index");
+                final Object elemIndex = elem.get("@index");
                 if (node.containsKey("@index")) {
                     if (!JsonLdUtils.deepCompare(node.get("@index"), elemIndex)) {
                         throw new JsonLdError(Error.CONFLICTING_INDEXES);
@@ -1143,7 +1541,7 @@ public class JsonLdApi {
                 referencedNode.put("@id", id);
                 // 6.9.2+6.9.4)
                 final Map<String, Object> reverseMap = (Map<String, Object>) elem
-                        .remove("@reverse");
+                        .get("@reverse");
                 // 6.9.3)
                 for (final String property : reverseMap.keySet()) {
                     final List<Object> values = (List<Object>) reverseMap.get(property);
@@ -1156,12 +1554,20 @@ public class JsonLdApi {
             }
             // 6.10)
             if (elem.containsKey("@graph")) {
-                generateNodeMap(elem.remove("@graph"), nodeMap, id, null, null, null);
+                generateNodeMap(elem.get("@graph"), nodeMap, id, null, null, null);
             }
             // 6.11)
             final List<String> keys = new ArrayList<String>(elem.keySet());
-            Collections.sort(keys);
+            if (opts.getOrdered()) {
+                Collections.sort(keys);
+            }
             for (String property : keys) {
+                // NOTE: skips the keywords handled above
+                if ("@id".equals(property) || "@type".equals(property)
+                        || "@index".equals(property) || "@reverse".equals(property)
+                        || "@graph".equals(property)) {
+                    continue;
+                }
                 final Object value = elem.get(property);
                 // 6.11.1)
                 if (property.startsWith("_:")) {
@@ -1201,9 +1607,10 @@ public class JsonLdApi {
      *            The id, or null to generate a fresh, unused, blank node
      *            identifier.
      * @return A blank node identifier based on id if it was not null, or a
-     *         fresh, unused, blank node identifier if it was null.
+     *         fresh, unused, blank node identifier if it was null. Safe to
+     *         call from several threads.
      */
-    String generateBlankNodeIdentifier(String id) {
+    synchronized String generateBlankNodeIdentifier(String id) {
         if (id != null && blankNodeIdentifierMap.containsKey(id)) {
             return blankNodeIdentifierMap.get(id);
         }
@@ -1287,7 +1694,8 @@ public class JsonLdApi {
         final FramingContext state = new FramingContext(this.opts);
 
         // use tree map so keys are sotred by default
-        final Map<String, Object> nodes = new TreeMap<String, Object>();
+        final Map<String, Object> nodes = opts.getOrdered() ? new TreeMap<String, Object>()
+                : new LinkedHashMap<String, Object>();
         generateNodeMap(input, nodes);
         this.nodeMap = (Map<String, Object>) nodes.get("@default");
 
@@ -1329,7 +1737,9 @@ public class JsonLdApi {
 
         // add matches to output
         final List<String> ids = new ArrayList<String>(matches.keySet());
-        Collections.sort(ids);
+        if (opts.getOrdered()) {
+            Collections.sort(ids);
+        }
         for (final String id : ids) {
             if (property == null) {
                 state.embeds = new LinkedHashMap<String, EmbedNode>();
@@ -1387,7 +1797,9 @@ public class JsonLdApi {
                 // iterate over subject properties
                 final Map<String, Object> element = (Map<String, Object>) matches.get(id);
                 List<String> props = new ArrayList<String>(element.keySet());
-                Collections.sort(props);
+                if (opts.getOrdered()) {
+                    Collections.sort(props);
+                }
                 for (final String prop : props) {
 
                     // copy keywords to output
@@ -1460,7 +1872,9 @@ public class JsonLdApi {
 
                 // handle defaults
                 props = new ArrayList<String>(frame.keySet());
-                Collections.sort(props);
+                if (opts.getOrdered()) {
+                    Collections.sort(props);
+                }
                 for (final String prop : props) {
                     // skip keywords
                     if (isKeyword(prop)) {
@@ -1775,6 +2189,28 @@ public class JsonLdApi {
         }
     }
 
+    /**
+     * Adds the object of a triple to the node of its subject.
+     * 
+     * @return The value added, or null if the object was added as a type.
+     */
+    private Map<String, Object> mergeRDFValue(NodeMapNode node, String predicate,
+            RDFDataset.Node object) throws JsonLdError {
+        // 3.5.4)
+        if (RDF_TYPE.equals(predicate) && (object.isIRI() || object.isBlankNode())
+                && !opts.getUseRdfType()) {
+            JsonLdUtils.mergeValue(node, "@type", object.getValue());
+            return null;
+        }
+
+        // 3.5.5)
+        final Map<String, Object> value = object.toObject(opts.getUseNativeTypes());
+
+        // 3.5.6+7)
+        JsonLdUtils.mergeValue(node, predicate, value);
+        return value;
+    }
+
     /**
      * Converts RDF statements into JSON-LD.
      * 
@@ -1831,21 +2267,11 @@ public class JsonLdApi {
                     nodeMap.put(object.getValue(), new NodeMapNode(object.getValue()));
                 }
 
-                // 3.5.4)
-                if (RDF_TYPE.equals(predicate) && (object.isIRI() || object.isBlankNode())
-                        && !opts.getUseRdfType()) {
-                    JsonLdUtils.mergeValue(node, "@type", object.getValue());
-                    continue;
-                }
-
-                // 3.5.5)
-                final Map<String, Object> value = object.toObject(opts.getUseNativeTypes());
-
-                // 3.5.6+7)
-                JsonLdUtils.mergeValue(node, predicate, value);
+                // 3.5.4-7)
+                final Map<String, Object> value = mergeRDFValue(node, predicate, object);
 
                 // 3.5.8)
-                if (object.isBlankNode() || object.isIRI()) {
+                if (value != null && (object.isBlankNode() || object.isIRI())) {
                     // 3.5.8.1-3)
                     nodeMap.get(object.getValue()).usages
                             .add(new UsagesNode(node, predicate, value));
@@ -1922,7 +2348,9 @@ public class JsonLdApi {
         final List<Object> result = new ArrayList<Object>();
         // 6)
         final List<String> ids = new ArrayList<String>(defaultGraph.keySet());
-        Collections.sort(ids);
+        if (opts.getOrdered()) {
+            Collections.sort(ids);
+        }
         for (final String subject : ids) {
             final NodeMapNode node = defaultGraph.get(subject);
             // 6.1)
@@ -1931,7 +2359,9 @@ public class JsonLdApi {
                 node.put("@graph", new ArrayList<Object>());
                 // 6.1.2)
                 final List<String> keys = new ArrayList<String>(graphMap.get(subject).keySet());
-                Collections.sort(keys);
+                if (opts.getOrdered()) {
+                    Collections.sort(keys);
+                }
                 for (final String s : keys) {
                     final NodeMapNode n = graphMap.get(subject).get(s);
                     if (n.size() == 1 && n.containsKey("@id")) {
@@ -1950,6 +2380,221 @@ public class JsonLdApi {
         return result;
     }
 
+    /**
+     * Converts RDF statements into JSON-LD one node object at a time, without
+     * holding the whole dataset in memory.
+     *
+     * The quads must be grouped by graph, and within each graph by subject. A
+     * node object is passed to the callback as soon as the quads of its
+     * subject have been read, as a top-level node object for the default
+     * graph, and wrapped in an object with the graph name as @id and a single
+     * element @graph otherwise. A subject whose quads are not together is
+     * passed to the callback once for each group.
+     *
+     * Only the blank nodes that may be part of a list, and the identifiers of
+     * the blank nodes referenced so far, are kept until the end of their
+     * graph. A list is converted to @list if all its nodes come before the
+     * node using it, as in N-Quads sorted by subject, and none of them has
+     * been referenced before. Otherwise it is passed on as plain rdf:first
+     * and rdf:rest nodes. Unlike {@link #fromRDF(RDFDataset)}, a list that is
+     * used again after it was converted is not left unconverted, but its
+     * nodes are also passed on as plain nodes at the end of the graph, so
+     * that the later references are not left dangling.
+     *
+     * @param quads
+     *            the RDF statements, grouped by graph and subject.
+     * @param callback
+     *            The callback receiving the node objects.
+     * @throws JsonLdError
+     *             If there was an error during conversion from RDF to JSON-LD.
+     */
+    public void fromRDF(Iterator<RDFDataset.Quad> quads, JsonLdNodeCallback callback)
+            throws JsonLdError {
+        StreamedGraph graph = null;
+        NodeMapNode node = null;
+        while (quads.hasNext()) {
+            final RDFDataset.Quad quad = quads.next();
+            final String name = quad.getGraph() == null ? null : quad.getGraph().getValue();
+            final String subject = quad.getSubject().getValue();
+            if (node != null && !(subject.equals(node.get("@id")) && Obj.equals(name, graph.name))) {
+                flushNode(node, graph, callback);
+                node = null;
+                if (!Obj.equals(name, graph.name)) {
+                    flushGraph(graph, callback);
+                    graph = null;
+                }
+            }
+            if (graph == null) {
+                graph = new StreamedGraph(name);
+            }
+            if (node == null) {
+                node = new NodeMapNode(subject);
+            }
+            mergeRDFValue(node, quad.getPredicate().getValue(), quad.getObject());
+        }
+        if (node != null) {
+            flushNode(node, graph, callback);
+            flushGraph(graph, callback);
+        }
+    }
+
+    /**
+     * The state of the graph being converted by
+     * {@link #fromRDF(Iterator, JsonLdNodeCallback)}.
+     */
+    private static class StreamedGraph {
+        final String name;
+        // the blank nodes that may be part of a list, by id
+        final Map<String, NodeMapNode> pending = new LinkedHashMap<String, NodeMapNode>();
+        // the nodes of the lists converted to @list, by id
+        final Map<String, NodeMapNode> converted = new HashMap<String, NodeMapNode>();
+        // the blank nodes referenced by the nodes passed on so far
+        final Set<String> referenced = new HashSet<String>();
+
+        StreamedGraph(String name) {
+            this.name = name;
+        }
+    }
+
+    private void flushNode(NodeMapNode node, StreamedGraph graph, JsonLdNodeCallback callback)
+            throws JsonLdError {
+        if (isListCandidate(node)) {
+            graph.pending.put((String) node.get("@id"), node);
+            return;
+        }
+        for (final String property : node.keySet()) {
+            if (isKeyword(property)) {
+                continue;
+            }
+            final List<Object> values = (List<Object>) node.get(property);
+            for (int i = 0; i < values.size(); i++) {
+                final Object value = values.get(i);
+                if (!JsonLdUtils.isNodeReference(value)) {
+                    continue;
+                }
+                final String id = (String) ((Map<String, Object>) value).get("@id");
+                final List<Object> list = RDF_FIRST.equals(property) ? null : takeList(id, graph);
+                if (list != null) {
+                    final Map<String, Object> head = new LinkedHashMap<String, Object>();
+                    head.put("@list", list);
+                    values.set(i, head);
+                } else if (id.startsWith("_:")) {
+                    graph.referenced.add(id);
+                }
+            }
+        }
+        emitNode(node.serialize(), graph.name, callback);
+    }
+
+    /**
+     * Passes on the nodes of lists that were not converted, and the nodes of
+     * converted lists that were referenced again, at the end of a graph.
+     */
+    private void flushGraph(StreamedGraph graph, JsonLdNodeCallback callback)
+            throws JsonLdError {
+        for (final NodeMapNode node : graph.pending.values()) {
+            addReferences(node, graph.referenced);
+            emitNode(node.serialize(), graph.name, callback);
+        }
+        final List<String> used = new ArrayList<String>();
+        for (final String id : graph.referenced) {
+            if (graph.converted.containsKey(id)) {
+                used.add(id);
+            }
+        }
+        // NOTE: the rest of a used list is needed as well
+        for (int i = 0; i < used.size(); i++) {
+            final NodeMapNode node = graph.converted.remove(used.get(i));
+            if (node == null) {
+                continue;
+            }
+            final Set<String> references = new LinkedHashSet<String>();
+            addReferences(node, references);
+            used.addAll(references);
+            emitNode(node.serialize(), graph.name, callback);
+        }
+    }
+
+    private static void addReferences(NodeMapNode node, Set<String> references) {
+        for (final String property : node.keySet()) {
+            if (isKeyword(property)) {
+                continue;
+            }
+            for (final Object value : (List<Object>) node.get(property)) {
+                if (JsonLdUtils.isNodeReference(value)) {
+                    references.add((String) ((Map<String, Object>) value).get("@id"));
+                }
+            }
+        }
+    }
+
+    private static void emitNode(Map<String, Object> node, String graphName,
+            JsonLdNodeCallback callback) throws JsonLdError {
+        if (graphName == null) {
+            callback.call(node);
+            return;
+        }
+        final Map<String, Object> graph = new LinkedHashMap<String, Object>();
+        graph.put("@id", graphName);
+        final List<Object> nodes = new ArrayList<Object>();
+        nodes.add(node);
+        graph.put("@graph", nodes);
+        callback.call(graph);
+    }
+
+    // a blank node with a single rdf:first, a single rdf:rest and no other
+    // properties than an rdf:List type
+    private static boolean isListCandidate(NodeMapNode node) {
+        if (!JsonLdUtils.isBlankNode(node)) {
+            return false;
+        }
+        for (final String property : node.keySet()) {
+            final Object values = node.get(property);
+            if ("@id".equals(property)) {
+                continue;
+            } else if (RDF_FIRST.equals(property)) {
+                if (((List<Object>) values).size() != 1) {
+                    return false;
+                }
+            } else if (RDF_REST.equals(property)) {
+                if (((List<Object>) values).size() != 1
+                        || !JsonLdUtils.isNodeReference(((List<Object>) values).get(0))) {
+                    return false;
+                }
+            } else if ("@type".equals(property)) {
+                if (((List<Object>) values).size() != 1
+                        || !RDF_LIST.equals(((List<Object>) values).get(0))) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return node.containsKey(RDF_FIRST) && node.containsKey(RDF_REST);
+    }
+
+    // moves the nodes of the list starting at id from pending to converted
+    // and returns its items, or returns null if they are not all pending or
+    // one of them has been referenced already
+    private static List<Object> takeList(String id, StreamedGraph graph) {
+        final List<Object> list = new ArrayList<Object>();
+        final Set<String> listNodes = new LinkedHashSet<String>();
+        String next = id;
+        while (!RDF_NIL.equals(next)) {
+            final NodeMapNode node = graph.pending.get(next);
+            if (node == null || graph.referenced.contains(next) || !listNodes.add(next)) {
+                return null;
+            }
+            list.add(((List<Object>) node.get(RDF_FIRST)).get(0));
+            next = (String) ((Map<String, Object>) ((List<Object>) node.get(RDF_REST)).get(0))
+                    .get("@id");
+        }
+        for (final String nodeId : listNodes) {
+            graph.converted.put(nodeId, graph.pending.remove(nodeId));
+        }
+        return list;
+    }
+
     /***
      * ____ _ _ ____ ____ _____ _ _ _ _ _ / ___|___ _ ____ _____ _ __| |_ | |_
      * ___ | _ \| _ \| ___| / \ | | __ _ ___ _ __(_) |_| |__ _ __ ___ | | / _ \|
@@ -1989,6 +2634,34 @@ public class JsonLdApi {
         return dataset;
     }
 
+    /**
+     * Passes the RDF triples for each graph in the current node map to a sink
+     * as they are created, without collecting them in an RDF dataset. The
+     * sink's start and end methods are not called.
+     * 
+     * @param sink
+     *            The sink receiving the quads.
+     * @throws JsonLdError
+     *             If there was an error converting from JSON-LD to RDF.
+     */
+    public void toRDF(RDFQuadSink sink) throws JsonLdError {
+        final Map<String, Object> nodeMap = new LinkedHashMap<String, Object>();
+        nodeMap.put("@default", new LinkedHashMap<String, Object>());
+        generateNodeMap(this.value, nodeMap);
+
+        // NOTE: only used to convert graphs, never holds any quads
+        final RDFDataset dataset = new RDFDataset(this);
+
+        for (final String graphName : nodeMap.keySet()) {
+            // 4.1)
+            if (JsonLdUtils.isRelativeIri(graphName)) {
+                continue;
+            }
+            final Map<String, Object> graph = (Map<String, Object>) nodeMap.get(graphName);
+            dataset.graphToRDF(graphName, graph, sink);
+        }
+    }
+
     /***
      * _ _ _ _ _ _ _ _ _ _ _ | \ | | ___ _ __ _ __ ___ __ _| (_)______ _| |_(_)
      * ___ _ __ / \ | | __ _ ___ _ __(_) |_| |__ _ __ ___ | \| |/ _ \| '__| '_ `
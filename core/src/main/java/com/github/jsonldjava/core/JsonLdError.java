@@ -13,6 +13,11 @@ public class JsonLdError extends Exception {
         this.type = type;
     }
 
+    public JsonLdError(Error type, Object detail, Throwable cause) {
+        super(detail == null ? "" : detail.toString(), cause);
+        this.type = type;
+    }
+
     public JsonLdError(Error type) {
         super("");
         this.type = type;
@@ -43,8 +48,8 @@ public class JsonLdError extends Exception {
 
         // non spec related errors
         SYNTAX_ERROR("syntax error"), NOT_IMPLEMENTED("not implemnted"), UNKNOWN_FORMAT(
-                "unknown format"), INVALID_INPUT("invalid input"), PARSE_ERROR("parse error"), UNKNOWN_ERROR(
-                "unknown error");
+                "unknown format"), INVALID_INPUT("invalid input"), PARSE_ERROR("parse error"), NOT_STREAMABLE(
+                "not streamable"), UNKNOWN_ERROR("unknown error");
 
         private final String error;
 
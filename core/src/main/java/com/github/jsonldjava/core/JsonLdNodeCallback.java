@@ -0,0 +1,26 @@
+package com.github.jsonldjava.core;
+
+import java.util.Map;
+
+/**
+ * Receives the expanded node objects of a document one at a time, as they
+ * are produced by
+ * {@link JsonLdProcessor#expand(com.fasterxml.jackson.core.JsonParser, JsonLdOptions, JsonLdNodeCallback)}
+ * or
+ * {@link JsonLdProcessor#fromRDF(java.util.Iterator, JsonLdOptions, JsonLdNodeCallback)}
+ * .
+ */
+public interface JsonLdNodeCallback {
+
+    /**
+     * Called for each top-level node object of the expanded document, in
+     * document order.
+     * 
+     * @param node
+     *            The expanded node object, which the callback may keep or
+     *            modify.
+     * @throws JsonLdError
+     *             To stop the conversion.
+     */
+    public void call(Map<String, Object> node) throws JsonLdError;
+}
@@ -1,5 +1,7 @@
 package com.github.jsonldjava.core;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * The JsonLdOptions type as specified in the <a
  * href="http://www.w3.org/TR/json-ld-api/#the-jsonldoptions-type">JSON-LD-API
@@ -51,6 +53,40 @@ public class JsonLdOptions {
      */
     private DocumentLoader documentLoader = new DocumentLoader();
 
+    /**
+     * Optional cache of processed remote contexts, which may be shared by
+     * several JsonLdOptions instances and threads.
+     */
+    private ContextCache contextCache = null;
+    /**
+     * Whether expansion first finds all remote context URLs in the input, and
+     * loads them concurrently, before expanding it.
+     */
+    private boolean prefetchContexts = false;
+    /**
+     * Whether the input of compact, flatten, frame and toRDF is already in
+     * expanded form, such as the output of expand or fromRDF, so that it is
+     * not expanded again.
+     */
+    private boolean inputExpanded = false;
+    /**
+     * Whether keys and node identifiers are sorted while processing, so that
+     * the output is always the same. Without sorting the output is equivalent,
+     * but the order of keys and values, and the blank node identifiers, may
+     * differ.
+     */
+    private boolean ordered = true;
+    /**
+     * Executor that the members of large arrays are processed on in
+     * parallel, or null to process everything on the calling thread.
+     */
+    private ExecutorService executor = null;
+    /**
+     * The number of members above which an array is split into tasks of this
+     * many members for the executor.
+     */
+    private int parallelThreshold = 1000;
+
     // Frame options : http://json-ld.org/spec/latest/json-ld-framing/
 
     private Boolean embed = null;
@@ -152,6 +188,68 @@ public class JsonLdOptions {
         this.documentLoader = documentLoader;
     }
 
+    public ContextCache getContextCache() {
+        return contextCache;
+    }
+
+    public void setContextCache(ContextCache contextCache) {
+        this.contextCache = contextCache;
+    }
+
+    public boolean getPrefetchContexts() {
+        return prefetchContexts;
+    }
+
+    public void setPrefetchContexts(boolean prefetchContexts) {
+        this.prefetchContexts = prefetchContexts;
+    }
+
+    public boolean getInputExpanded() {
+        return inputExpanded;
+    }
+
+    public void setInputExpanded(boolean inputExpanded) {
+        this.inputExpanded = inputExpanded;
+    }
+
+    public boolean getOrdered() {
+        return ordered;
+    }
+
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @param executor
+     *            The executor that large arrays are processed on, or null to
+     *            process them on the calling thread. It is not shut down by
+     *            the processor.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * @param parallelThreshold
+     *            The number of members above which an array is processed in
+     *            parallel, in tasks of this many members.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("parallelThreshold must be positive");
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
     // TODO: THE FOLLOWING ONLY EXIST SO I DON'T HAVE TO DELETE A LOT OF CODE,
     // REMOVE IT WHEN DONE
     public String format = null;
@@ -1,16 +1,21 @@
 package com.github.jsonldjava.core;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.github.jsonldjava.core.JsonLdError.Error;
 import com.github.jsonldjava.impl.NQuadRDFParser;
 import com.github.jsonldjava.impl.NQuadTripleCallback;
 import com.github.jsonldjava.impl.TurtleRDFParser;
 import com.github.jsonldjava.impl.TurtleTripleCallback;
+import com.github.jsonldjava.utils.JsonUtils;
 
 /**
  * This class implements the <a href=
@@ -32,7 +37,9 @@ public class JsonLdProcessor {
      * @param input
      *            The input JSON-LD object.
      * @param context
-     *            The context object to use for the compaction algorithm.
+     *            The context object to use for the compaction algorithm. This
+     *            may be a {@link Context} that has been frozen using
+     *            {@link Context#freeze()}, which will then be used directly.
      * @param opts
      *            The {@link JsonLdOptions} that are to be sent to the
      *            compaction algorithm.
@@ -46,7 +53,13 @@ public class JsonLdProcessor {
         // TODO: look into java futures/promises
 
         // 2-6) NOTE: these are all the same steps as in expand
-        final Object expanded = expand(input, opts);
+        final Object expanded = opts.getInputExpanded() ? input : expand(input, opts);
+        return compactExpanded(expanded, context, opts);
+    }
+
+    // steps 7-9 of compact, for input that is already expanded
+    private static Map<String, Object> compactExpanded(Object expanded, Object context,
+            JsonLdOptions opts) throws JsonLdError {
         // 7)
         if (context instanceof Map && ((Map<String, Object>) context).containsKey("@context")) {
             context = ((Map<String, Object>) context).get("@context");
@@ -69,6 +82,9 @@ public class JsonLdProcessor {
                 compacted = tmp;
             }
         }
+        if (context instanceof Context) {
+            context = ((Context) context).serialize().get("@context");
+        }
         if (compacted != null && context != null) {
             // TODO: figure out if we can make "@context" appear at the start of
             // the keySet
@@ -120,6 +136,19 @@ public class JsonLdProcessor {
 
         // 3)
         Context activeCtx = new Context(opts);
+        if (opts.getPrefetchContexts()) {
+            // NOTE: load all remote contexts up front, so that expansion does
+            // not have to wait for each of them in turn
+            final List<Object> inputs = new ArrayList<Object>();
+            final Object exCtx = opts.getExpandContext();
+            if (exCtx instanceof Map && ((Map<String, Object>) exCtx).containsKey("@context")) {
+                inputs.add(exCtx);
+            } else if (exCtx != null) {
+                inputs.add(Collections.singletonMap("@context", exCtx));
+            }
+            inputs.add(input);
+            activeCtx.setPrefetched(JsonLdUtils.prefetchContextUrls(inputs, opts));
+        }
         // 4)
         if (opts.getExpandContext() != null) {
             Object exCtx = opts.getExpandContext();
@@ -168,10 +197,128 @@ public class JsonLdProcessor {
         return expand(input, new JsonLdOptions(""));
     }
 
+    /**
+     * Expands the JSON-LD document read from the given parser, passing each
+     * expanded node object to the callback as soon as it is complete, instead
+     * of returning them all at the end.
+     * 
+     * Only a single top-level node object is held in memory at a time when
+     * the document is an array of node objects, or an object with an @graph
+     * member that only follows an @context member. Any other document is read
+     * whole and then expanded.
+     * 
+     * A member that follows a streamed @graph member, such as the @id of a
+     * named graph, turns the document into a single node object, but the
+     * members of the graph have already been passed to the callback by then.
+     * A {@link JsonLdError} of type {@link Error#NOT_STREAMABLE} is thrown in
+     * that case, and the nodes passed to the callback must be discarded and
+     * the document expanded with {@link #expand(Object, JsonLdOptions)}
+     * instead.
+     * 
+     * @param parser
+     *            The parser to read the JSON-LD document from, at or before
+     *            its first token.
+     * @param opts
+     *            The {@link JsonLdOptions} that are to be sent to the
+     *            expansion algorithm.
+     * @param callback
+     *            The callback receiving the expanded node objects.
+     * @throws JsonLdError
+     *             If there is an error while expanding, or the document
+     *             cannot be streamed.
+     * @throws IOException
+     *             If the document could not be read or is not valid JSON.
+     */
+    public static void expand(JsonParser parser, JsonLdOptions opts, JsonLdNodeCallback callback)
+            throws JsonLdError, IOException {
+        // 3)
+        Context activeCtx = new Context(opts);
+        // 4)
+        if (opts.getExpandContext() != null) {
+            Object exCtx = opts.getExpandContext();
+            if (exCtx instanceof Map && ((Map<String, Object>) exCtx).containsKey("@context")) {
+                exCtx = ((Map<String, Object>) exCtx).get("@context");
+            }
+            activeCtx = activeCtx.parse(exCtx);
+        }
+        final JsonLdApi api = new JsonLdApi(opts);
+
+        JsonToken token = parser.getCurrentToken();
+        if (token == null) {
+            token = parser.nextToken();
+        }
+        if (token == JsonToken.START_ARRAY) {
+            // 3.2) NOTE: each element of a top-level array is expanded on its
+            // own
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                emitExpanded(api.expand(activeCtx, null, JsonUtils.fromJsonParser(parser)),
+                        callback);
+            }
+            return;
+        } else if (token != JsonToken.START_OBJECT) {
+            // a single value expands to nothing
+            JsonUtils.fromJsonParser(parser);
+            return;
+        }
+
+        final Map<String, Object> element = new LinkedHashMap<String, Object>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.getCurrentName();
+            parser.nextToken();
+            if (element.size() == 1 && element.containsKey("@context")) {
+                final Context graphCtx = api.deriveContext(activeCtx, element.get("@context"));
+                if ("@graph".equals(graphCtx.expandIri(key, false, true, null, null))) {
+                    streamGraph(api, graphCtx, parser, callback);
+                    if (parser.nextToken() != JsonToken.END_OBJECT) {
+                        throw new JsonLdError(Error.NOT_STREAMABLE,
+                                "a member follows a streamed @graph member");
+                    }
+                    return;
+                }
+            }
+            element.put(key, JsonUtils.fromJsonParser(parser));
+        }
+        // not streamable, so expanded whole
+        Object expanded = api.expand(activeCtx, null, element);
+        // final step of Expansion Algorithm
+        if (expanded instanceof Map && ((Map) expanded).containsKey("@graph")
+                && ((Map) expanded).size() == 1) {
+            expanded = ((Map<String, Object>) expanded).get("@graph");
+        }
+        emitExpanded(expanded, callback);
+    }
+
+    /**
+     * Expands the elements of the value of an @graph member one at a time.
+     */
+    private static void streamGraph(JsonLdApi api, Context activeCtx, JsonParser parser,
+            JsonLdNodeCallback callback) throws JsonLdError, IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            emitExpanded(api.expand(activeCtx, "@graph", JsonUtils.fromJsonParser(parser)),
+                    callback);
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            emitExpanded(api.expand(activeCtx, "@graph", JsonUtils.fromJsonParser(parser)),
+                    callback);
+        }
+    }
+
+    private static void emitExpanded(Object expanded, JsonLdNodeCallback callback)
+            throws JsonLdError {
+        if (expanded instanceof List) {
+            for (final Object node : (List<Object>) expanded) {
+                emitExpanded(node, callback);
+            }
+        } else if (expanded instanceof Map) {
+            callback.call((Map<String, Object>) expanded);
+        }
+    }
+
     public static Object flatten(Object input, Object context, JsonLdOptions opts)
             throws JsonLdError {
         // 2-6) NOTE: these are all the same steps as in expand
-        final Object expanded = expand(input, opts);
+        final Object expanded = opts.getInputExpanded() ? input : expand(input, opts);
         // 7)
         if (context instanceof Map && ((Map<String, Object>) context).containsKey("@context")) {
             context = ((Map<String, Object>) context).get("@context");
@@ -206,7 +353,9 @@ public class JsonLdProcessor {
                 entry.put("@graph", new ArrayList<Object>());
             }
             final List<String> keys = new ArrayList<String>(graph.keySet());
-            Collections.sort(keys);
+            if (opts.getOrdered()) {
+                Collections.sort(keys);
+            }
             for (final String id : keys) {
                 final Map<String, Object> node = (Map<String, Object>) graph.get(id);
                 if (!(node.containsKey("@id") && node.size() == 1)) {
@@ -219,7 +368,9 @@ public class JsonLdProcessor {
         final List<Object> flattened = new ArrayList<Object>();
         // 6)
         final List<String> keys = new ArrayList<String>(defaultGraph.keySet());
-        Collections.sort(keys);
+        if (opts.getOrdered()) {
+            Collections.sort(keys);
+        }
         for (final String id : keys) {
             final Map<String, Object> node = (Map<String, Object>) defaultGraph.get(id);
             if (!(node.containsKey("@id") && node.size() == 1)) {
@@ -290,7 +441,7 @@ public class JsonLdProcessor {
         }
         // TODO string/IO input
 
-        final Object expandedInput = expand(input, opts);
+        final Object expandedInput = opts.getInputExpanded() ? input : expand(input, opts);
         final List<Object> expandedFrame = expand(frame, opts);
 
         final JsonLdApi api = new JsonLdApi(expandedInput, opts);
@@ -350,23 +501,23 @@ public class JsonLdProcessor {
      *             If there is an error converting the dataset to JSON-LD.
      */
     public static Object fromRDF(Object dataset, JsonLdOptions options) throws JsonLdError {
-        // handle non specified serializer case
-
-        RDFParser parser = null;
+        // convert from RDF
+        return fromRDF(dataset, options, getRDFParser(dataset, options));
+    }
 
+    private static RDFParser getRDFParser(Object dataset, JsonLdOptions options)
+            throws JsonLdError {
+        // handle non specified serializer case
         if (options.format == null && dataset instanceof String) {
             // attempt to parse the input as nquads
             options.format = "application/nquads";
         }
 
         if (rdfParsers.containsKey(options.format)) {
-            parser = rdfParsers.get(options.format);
+            return rdfParsers.get(options.format);
         } else {
             throw new JsonLdError(JsonLdError.Error.UNKNOWN_FORMAT, options.format);
         }
-
-        // convert from RDF
-        return fromRDF(dataset, options, parser);
     }
 
     /**
@@ -384,6 +535,83 @@ public class JsonLdProcessor {
         return fromRDF(dataset, new JsonLdOptions(""));
     }
 
+    /**
+     * Converts an RDF dataset to JSON-LD and compacts it according to the
+     * given context. This is the same as calling
+     * {@link #compact(Object, Object, JsonLdOptions)} on the output of
+     * {@link #fromRDF(Object, JsonLdOptions)}, but does not expand the
+     * already expanded output of fromRDF again.
+     * 
+     * @param dataset
+     *            a serialized string of RDF in a format specified by the format
+     *            option, or an {@link RDFDataset} to convert.
+     * @param context
+     *            The context to compact with.
+     * @param options
+     *            the options to use, for both the conversion and the
+     *            compaction.
+     * @return The compacted JSON-LD document.
+     * @throws JsonLdError
+     *             If there is an error converting the dataset to JSON-LD.
+     */
+    public static Map<String, Object> compactFromRDF(Object dataset, Object context,
+            JsonLdOptions options) throws JsonLdError {
+        if (dataset instanceof RDFDataset) {
+            return compactExpanded(new JsonLdApi(options).fromRDF((RDFDataset) dataset),
+                    context, options);
+        }
+        return compactFromRDF(dataset, context, options, getRDFParser(dataset, options));
+    }
+
+    /**
+     * Converts an RDF dataset to JSON-LD using a specific instance of
+     * {@link RDFParser}, and compacts it according to the given context,
+     * without expanding the output of fromRDF again.
+     * 
+     * @param input
+     *            a serialized string of RDF in a format specified by the format
+     *            option or an RDF dataset to convert.
+     * @param context
+     *            The context to compact with.
+     * @param options
+     *            the options to use, for both the conversion and the
+     *            compaction.
+     * @param parser
+     *            A specific instance of {@link RDFParser} to use for the
+     *            conversion.
+     * @return The compacted JSON-LD document.
+     * @throws JsonLdError
+     *             If there is an error converting the dataset to JSON-LD.
+     */
+    public static Map<String, Object> compactFromRDF(Object input, Object context,
+            JsonLdOptions options, RDFParser parser) throws JsonLdError {
+        final RDFDataset dataset = parser.parse(input);
+        return compactExpanded(new JsonLdApi(options).fromRDF(dataset), context, options);
+    }
+
+    /**
+     * Converts RDF quads to JSON-LD one node object at a time, passing each to
+     * the callback as soon as the quads of its subject have been read. The
+     * quads must be grouped by graph and subject, as described in
+     * {@link JsonLdApi#fromRDF(Iterator, JsonLdNodeCallback)}.
+     * 
+     * @param quads
+     *            the quads to convert, grouped by graph and subject.
+     * @param options
+     *            the options to use: [useRdfType] true to use rdf:type, false
+     *            to use @type (default: false). [useNativeTypes] true to
+     *            convert XSD types into native types (boolean, integer,
+     *            double), false not to (default: true).
+     * @param callback
+     *            The callback receiving the expanded node objects.
+     * @throws JsonLdError
+     *             If there is an error converting the quads to JSON-LD.
+     */
+    public static void fromRDF(Iterator<RDFDataset.Quad> quads, JsonLdOptions options,
+            JsonLdNodeCallback callback) throws JsonLdError {
+        new JsonLdApi(options).fromRDF(quads, callback);
+    }
+
     /**
      * Converts an RDF dataset to JSON-LD, using a specific instance of
      * {@link RDFParser}.
@@ -418,7 +646,7 @@ public class JsonLdProcessor {
             if ("expanded".equals(options.outputForm)) {
                 return rval;
             } else if ("compacted".equals(options.outputForm)) {
-                return compact(rval, dataset.getContext(), options);
+                return compactExpanded(rval, dataset.getContext(), options);
             } else if ("flattened".equals(options.outputForm)) {
                 return flatten(rval, dataset.getContext(), options);
             } else {
@@ -466,25 +694,14 @@ public class JsonLdProcessor {
     public static Object toRDF(Object input, JsonLdTripleCallback callback, JsonLdOptions options)
             throws JsonLdError {
 
-        final Object expandedInput = expand(input, options);
+        final Object expandedInput = options.getInputExpanded() ? input : expand(input, options);
 
         final JsonLdApi api = new JsonLdApi(expandedInput, options);
         final RDFDataset dataset = api.toRDF();
 
         // generate namespaces from context
         if (options.useNamespaces) {
-            List<Map<String, Object>> _input;
-            if (input instanceof List) {
-                _input = (List<Map<String, Object>>) input;
-            } else {
-                _input = new ArrayList<Map<String, Object>>();
-                _input.add((Map<String, Object>) input);
-            }
-            for (final Map<String, Object> e : _input) {
-                if (e.containsKey("@context")) {
-                    dataset.parseContext((Map<String, Object>) e.get("@context"));
-                }
-            }
+            parseNamespaces(input, dataset);
         }
 
         if (callback != null) {
@@ -503,6 +720,55 @@ public class JsonLdProcessor {
         return dataset;
     }
 
+    private static void parseNamespaces(Object input, RDFDataset dataset) {
+        List<Map<String, Object>> _input;
+        if (input instanceof List) {
+            _input = (List<Map<String, Object>>) input;
+        } else {
+            _input = new ArrayList<Map<String, Object>>();
+            _input.add((Map<String, Object>) input);
+        }
+        for (final Map<String, Object> e : _input) {
+            if (e.containsKey("@context")) {
+                dataset.parseContext((Map<String, Object>) e.get("@context"));
+            }
+        }
+    }
+
+    /**
+     * Outputs the RDF dataset found in the given JSON-LD object to a sink, one
+     * quad at a time, without building an {@link RDFDataset} first.
+     * 
+     * If options.useNamespaces is set, the namespaces found in the context of
+     * the input are passed to the sink before the first quad.
+     * 
+     * @param input
+     *            the JSON-LD input.
+     * @param sink
+     *            The sink receiving the quads.
+     * @param options
+     *            the options to use.
+     * @throws JsonLdError
+     *             If there is an error converting the dataset to RDF.
+     */
+    public static void toRDFQuads(Object input, RDFQuadSink sink, JsonLdOptions options)
+            throws JsonLdError {
+        final Object expandedInput = options.getInputExpanded() ? input : expand(input, options);
+        final JsonLdApi api = new JsonLdApi(expandedInput, options);
+
+        sink.start();
+        if (options.useNamespaces) {
+            final RDFDataset namespaces = new RDFDataset();
+            parseNamespaces(input, namespaces);
+            for (final Map.Entry<String, String> namespace : namespaces.getNamespaces()
+                    .entrySet()) {
+                sink.namespace(namespace.getKey(), namespace.getValue());
+            }
+        }
+        api.toRDF(sink);
+        sink.end();
+    }
+
     /**
      * Outputs the RDF dataset found in the given JSON-LD object.
      * 
@@ -521,6 +787,55 @@ public class JsonLdProcessor {
         return toRDF(input, null, options);
     }
 
+    /**
+     * Converts the JSON-LD document read from the given parser to RDF one
+     * top-level node object at a time, passing the quads of each to the sink
+     * before reading the next one. Which documents can be read this way is
+     * described in
+     * {@link #expand(JsonParser, JsonLdOptions, JsonLdNodeCallback)}.
+     * 
+     * Blank node identifiers are consistent across the whole document, but as
+     * node objects are not merged, a quad may be passed to the sink more than
+     * once. Namespaces are not reported.
+     * 
+     * @param parser
+     *            The parser to read the JSON-LD document from, at or before
+     *            its first token.
+     * @param sink
+     *            The sink receiving the quads.
+     * @param options
+     *            the options to use.
+     * @throws JsonLdError
+     *             If there is an error converting the document to RDF.
+     * @throws IOException
+     *             If the document could not be read or is not valid JSON.
+     */
+    public static void streamToRDF(JsonParser parser, final RDFQuadSink sink,
+            JsonLdOptions options)
+            throws JsonLdError, IOException {
+        // NOTE: the same instance generates all blank node identifiers
+        final JsonLdApi api = new JsonLdApi(options);
+        final RDFDataset dataset = new RDFDataset(api);
+        sink.start();
+        expand(parser, options, new JsonLdNodeCallback() {
+            @Override
+            public void call(Map<String, Object> node) throws JsonLdError {
+                final Map<String, Object> nodeMap = new LinkedHashMap<String, Object>();
+                nodeMap.put("@default", new LinkedHashMap<String, Object>());
+                api.generateNodeMap(node, nodeMap);
+                for (final String graphName : nodeMap.keySet()) {
+                    // 4.1)
+                    if (JsonLdUtils.isRelativeIri(graphName)) {
+                        continue;
+                    }
+                    dataset.graphToRDF(graphName, (Map<String, Object>) nodeMap.get(graphName),
+                            sink);
+                }
+            }
+        });
+        sink.end();
+    }
+
     /**
      * Outputs the RDF dataset found in the given JSON-LD object, using the
      * default {@link JsonLdOptions}.
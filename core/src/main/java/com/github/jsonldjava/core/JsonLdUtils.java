@@ -6,9 +6,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import com.fasterxml.jackson.core.JsonParseException;
@@ -841,6 +844,54 @@ public class JsonLdUtils {
 
     }
 
+    /**
+     * Starts loading all remote contexts referenced by the given input, and
+     * the remote contexts they reference in turn, up to MAX_CONTEXT_URLS
+     * levels deep, and waits until they are loaded. The contexts of each level
+     * are loaded concurrently.
+     * 
+     * @param input
+     *            the JSON-LD input with possible contexts.
+     * @param opts
+     *            the options holding the base IRI and the document loader to
+     *            use.
+     * @return the remote documents, by their resolved URL. Loading errors are
+     *         not reported here, but when the document is used.
+     */
+    static Map<String, Future<RemoteDocument>> prefetchContextUrls(Object input,
+            JsonLdOptions opts) {
+        final Map<String, Future<RemoteDocument>> rval = new HashMap<String, Future<RemoteDocument>>();
+        List<Object> inputs = Collections.singletonList(input);
+        for (int depth = 0; depth < MAX_CONTEXT_URLS && !inputs.isEmpty(); depth++) {
+            final Map<String, Object> urls = new LinkedHashMap<String, Object>();
+            for (final Object i : inputs) {
+                findContextUrls(i, urls, false);
+            }
+            final List<Future<RemoteDocument>> loading = new ArrayList<Future<RemoteDocument>>();
+            for (final String url : urls.keySet()) {
+                final String uri = JsonLdUrl.resolve(opts.getBase(), url);
+                if (!rval.containsKey(uri)) {
+                    final Future<RemoteDocument> future = opts.getDocumentLoader()
+                            .loadDocumentAsync(uri);
+                    rval.put(uri, future);
+                    loading.add(future);
+                }
+            }
+            inputs = new ArrayList<Object>(loading.size());
+            for (final Future<RemoteDocument> future : loading) {
+                try {
+                    inputs.add(future.get().document);
+                } catch (final ExecutionException e) {
+                    // reported when the context is used
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return rval;
+                }
+            }
+        }
+        return rval;
+    }
+
     /**
      * Finds all @context URLs in the given JSON-LD input.
      * 
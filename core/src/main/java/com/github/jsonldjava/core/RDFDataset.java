@@ -514,9 +514,45 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
      * @param graph
      *            the graph to create RDF triples for.
      */
-    void graphToRDF(String graphName, Map<String, Object> graph) {
+    void graphToRDF(String graphName, Map<String, Object> graph) throws JsonLdError {
         // 4.2)
         final List<Quad> triples = new ArrayList<Quad>();
+        graphToRDF(graphName, graph, new RDFQuadSink() {
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void namespace(String prefix, String namespace) {
+            }
+
+            @Override
+            public void quad(Quad quad) {
+                triples.add(quad);
+            }
+
+            @Override
+            public void end() {
+            }
+        });
+        put(graphName, triples);
+    }
+
+    /**
+     * Creates the RDF triples for the given graph, and passes them to the
+     * given sink instead of adding them to this dataset.
+     * 
+     * @param graphName
+     *            The graph URI
+     * @param graph
+     *            the graph to create RDF triples for.
+     * @param sink
+     *            the sink receiving the triples, as quads in the given graph.
+     * @throws JsonLdError
+     *             If the sink fails.
+     */
+    void graphToRDF(String graphName, Map<String, Object> graph, RDFQuadSink sink)
+            throws JsonLdError {
         // 4.3)
         final List<String> subjects = new ArrayList<String>(graph.keySet());
         // Collections.sort(subjects);
@@ -526,7 +562,9 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
             }
             final Map<String, Object> node = (Map<String, Object>) graph.get(id);
             final List<String> properties = new ArrayList<String>(node.keySet());
-            Collections.sort(properties);
+            if (api.opts.getOrdered()) {
+                Collections.sort(properties);
+            }
             for (String property : properties) {
                 final List<Object> values;
                 // 4.3.2.1)
@@ -576,30 +614,29 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
                             last = objectToRDF(list.get(list.size() - 1));
                             firstBNode = new BlankNode(api.generateBlankNodeIdentifier());
                         }
-                        triples.add(new Quad(subject, predicate, firstBNode, graphName));
+                        sink.quad(new Quad(subject, predicate, firstBNode, graphName));
                         for (int i = 0; i < list.size() - 1; i++) {
                             final Node object = objectToRDF(list.get(i));
-                            triples.add(new Quad(firstBNode, first, object, graphName));
+                            sink.quad(new Quad(firstBNode, first, object, graphName));
                             final Node restBNode = new BlankNode(api.generateBlankNodeIdentifier());
-                            triples.add(new Quad(firstBNode, rest, restBNode, graphName));
+                            sink.quad(new Quad(firstBNode, rest, restBNode, graphName));
                             firstBNode = restBNode;
                         }
                         if (last != null) {
-                            triples.add(new Quad(firstBNode, first, last, graphName));
-                            triples.add(new Quad(firstBNode, rest, nil, graphName));
+                            sink.quad(new Quad(firstBNode, first, last, graphName));
+                            sink.quad(new Quad(firstBNode, rest, nil, graphName));
                         }
                     }
                     // convert value or node object to triple
                     else {
                         final Node object = objectToRDF(item);
                         if (object != null) {
-                            triples.add(new Quad(subject, predicate, object, graphName));
+                            sink.quad(new Quad(subject, predicate, object, graphName));
                         }
                     }
                 }
             }
         }
-        put(graphName, triples);
     }
 
     /**
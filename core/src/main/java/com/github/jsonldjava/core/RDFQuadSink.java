@@ -0,0 +1,52 @@
+package com.github.jsonldjava.core;
+
+import com.github.jsonldjava.core.RDFDataset.Quad;
+
+/**
+ * Receives the quads of an RDF dataset one at a time, as they are produced
+ * from a JSON-LD document, so that they never all have to be held in memory.
+ * 
+ * {@link #start()} is called before anything else and {@link #end()} after
+ * the last quad.
+ */
+public interface RDFQuadSink {
+
+    /**
+     * Called before the first quad.
+     * 
+     * @throws JsonLdError
+     *             To stop the conversion.
+     */
+    public void start() throws JsonLdError;
+
+    /**
+     * Called for a namespace declared by the document, which may be used to
+     * abbreviate IRIs in the output.
+     * 
+     * @param prefix
+     *            The prefix, or "" for the default namespace.
+     * @param namespace
+     *            The namespace IRI.
+     * @throws JsonLdError
+     *             To stop the conversion.
+     */
+    public void namespace(String prefix, String namespace) throws JsonLdError;
+
+    /**
+     * Called for each quad. A quad in the default graph has no graph name.
+     * 
+     * @param quad
+     *            The quad.
+     * @throws JsonLdError
+     *             To stop the conversion.
+     */
+    public void quad(Quad quad) throws JsonLdError;
+
+    /**
+     * Called after the last quad.
+     * 
+     * @throws JsonLdError
+     *             To stop the conversion.
+     */
+    public void end() throws JsonLdError;
+}
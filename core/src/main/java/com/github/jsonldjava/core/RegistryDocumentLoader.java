@@ -0,0 +1,158 @@
+package com.github.jsonldjava.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+/**
+ * A {@link DocumentLoader} that serves registered documents, such as well
+ * known contexts, from memory, and loads all other documents using another
+ * loader.
+ *
+ * Documents can be registered programmatically, or listed in
+ * {@value #CLASSPATH_REGISTRY} files on the classpath. Each of those files
+ * holds a JSON array of objects with a "Content-Location" member for the URL
+ * of the document and an "X-Classpath" member for the classpath resource
+ * holding it, for example:
+ *
+ * <pre>
+ * [ { "Content-Location": "http://schema.org/", "X-Classpath": "contexts/schema.jsonld" } ]
+ * </pre>
+ *
+ * Registered documents are parsed once and the same object is returned by
+ * every load, so they must not be modified.
+ */
+public class RegistryDocumentLoader extends DocumentLoader {
+
+    /**
+     * The classpath resource listing the documents registered by
+     * {@link #registerClasspathDocuments(ClassLoader)}.
+     */
+    public static final String CLASSPATH_REGISTRY = "META-INF/jarcache.json";
+
+    private final Map<String, Object> documents = new ConcurrentHashMap<String, Object>();
+    private final DocumentLoader fallback;
+
+    /**
+     * Creates a registry that loads unregistered documents using a default
+     * {@link DocumentLoader}.
+     */
+    public RegistryDocumentLoader() {
+        this(new DocumentLoader());
+    }
+
+    /**
+     * Creates a registry that loads unregistered documents using the given
+     * loader.
+     *
+     * @param fallback
+     *            The loader for documents that are not registered.
+     */
+    public RegistryDocumentLoader(DocumentLoader fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Registers a parsed document.
+     *
+     * @param url
+     *            The URL the document is served for.
+     * @param document
+     *            The Map, List, or String that represent the document.
+     */
+    public void register(String url, Object document) {
+        if (url == null || document == null) {
+            throw new NullPointerException();
+        }
+        documents.put(url, document);
+    }
+
+    /**
+     * Registers the documents listed in all {@value #CLASSPATH_REGISTRY}
+     * resources of the given class loader, parsing them straight away.
+     *
+     * @param classLoader
+     *            The class loader to find the documents with.
+     * @return The number of documents registered.
+     * @throws JsonLdError
+     *             If a listed document could not be found or parsed.
+     */
+    public int registerClasspathDocuments(ClassLoader classLoader) throws JsonLdError {
+        int count = 0;
+        try {
+            final Enumeration<URL> registries = classLoader.getResources(CLASSPATH_REGISTRY);
+            while (registries.hasMoreElements()) {
+                final URL registry = registries.nextElement();
+                final Object entries = parse(registry.openStream(), registry.toString());
+                if (!(entries instanceof List)) {
+                    throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED,
+                            "Expected a JSON array in " + registry);
+                }
+                for (final Object entry : (List<Object>) entries) {
+                    final Object url = ((Map<String, Object>) entry).get("Content-Location");
+                    final Object path = ((Map<String, Object>) entry).get("X-Classpath");
+                    if (!(url instanceof String) || !(path instanceof String)) {
+                        throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED,
+                                "Invalid entry in " + registry + ": " + entry);
+                    }
+                    final InputStream in = classLoader.getResourceAsStream((String) path);
+                    if (in == null) {
+                        throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED,
+                                "Missing classpath resource " + path);
+                    }
+                    register((String) url, parse(in, (String) path));
+                    count++;
+                }
+            }
+        } catch (final IOException e) {
+            throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED, e);
+        }
+        return count;
+    }
+
+    private static Object parse(InputStream in, String name) throws JsonLdError {
+        try {
+            try {
+                return JsonUtils.fromInputStream(in);
+            } finally {
+                in.close();
+            }
+        } catch (final IOException e) {
+            throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED, name);
+        }
+    }
+
+    /**
+     * Removes a registered document.
+     *
+     * @param url
+     *            The URL the document was registered for.
+     */
+    public void unregister(String url) {
+        documents.remove(url);
+    }
+
+    /**
+     * @return The URLs of the registered documents.
+     */
+    public Set<String> getRegisteredUrls() {
+        return Collections.unmodifiableSet(documents.keySet());
+    }
+
+    @Override
+    public RemoteDocument loadDocument(String url) throws JsonLdError {
+        final Object document = documents.get(url);
+        if (document != null) {
+            return new RemoteDocument(url, document);
+        }
+        return fallback.loadDocument(url);
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.jsonldjava.core;
+
+/**
+ * An immutable term definition, as created by the <a
+ * href="http://www.w3.org/TR/json-ld-api/#create-term-definition">Create Term
+ * Definition algorithm</a> and held by a {@link Context}.
+ */
+public final class TermDefinition {
+
+    /**
+     * The container mappings a term definition may have.
+     */
+    public enum Container {
+        LIST("@list"), SET("@set"), INDEX("@index"), LANGUAGE("@language");
+
+        private final String keyword;
+
+        private Container(String keyword) {
+            this.keyword = keyword;
+        }
+
+        /**
+         * @return The keyword used for this container mapping in a context.
+         */
+        public String getKeyword() {
+            return keyword;
+        }
+
+        /**
+         * Returns the container mapping for the given keyword.
+         *
+         * @param keyword
+         *            The keyword used in a context, or null.
+         * @return The container mapping, or null if keyword was null or is
+         *         not a container mapping.
+         */
+        public static Container fromKeyword(String keyword) {
+            if (keyword != null) {
+                for (final Container container : values()) {
+                    if (container.keyword.equals(keyword)) {
+                        return container;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private final String id;
+    private final boolean reverse;
+    private final Container container;
+    private final String typeMapping;
+    private final boolean hasLanguageMapping;
+    private final String languageMapping;
+
+    TermDefinition(String id, boolean reverse, Container container, String typeMapping,
+            boolean hasLanguageMapping, String languageMapping) {
+        this.id = id;
+        this.reverse = reverse;
+        this.container = container;
+        this.typeMapping = typeMapping;
+        this.hasLanguageMapping = hasLanguageMapping;
+        this.languageMapping = languageMapping;
+    }
+
+    /**
+     * @return The IRI mapping, which is either an absolute IRI, a blank node
+     *         identifier or a keyword.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return true if this term defines a reverse property.
+     */
+    public boolean isReverse() {
+        return reverse;
+    }
+
+    /**
+     * @return The container mapping, or null if there is none.
+     */
+    public Container getContainer() {
+        return container;
+    }
+
+    /**
+     * @return The container mapping as a keyword, or null if there is none.
+     */
+    public String getContainerKeyword() {
+        return container == null ? null : container.getKeyword();
+    }
+
+    /**
+     * @return The type mapping, which is either an absolute IRI, "@id" or
+     *         "@vocab", or null if there is none.
+     */
+    public String getTypeMapping() {
+        return typeMapping;
+    }
+
+    /**
+     * @return true if this term has a language mapping, which may be null to
+     *         indicate that its string values have no language.
+     */
+    public boolean hasLanguageMapping() {
+        return hasLanguageMapping;
+    }
+
+    /**
+     * @return The language mapping, or null if there is none or if strings
+     *         have no language.
+     */
+    public String getLanguageMapping() {
+        return languageMapping;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.Set;
 
 import com.github.jsonldjava.core.JsonLdTripleCallback;
 import com.github.jsonldjava.core.RDFDataset;
+import com.github.jsonldjava.utils.IriPrefixTrie;
 
 public class TurtleTripleCallback implements JsonLdTripleCallback {
 
@@ -34,6 +35,7 @@ public class TurtleTripleCallback implements JsonLdTripleCallback {
             // TODO: fill with default namespaces
         }
     };
+    IriPrefixTrie<String> namespaces;
     Set<String> usedNamespaces;
 
     public TurtleTripleCallback() {
@@ -44,6 +46,7 @@ public class TurtleTripleCallback implements JsonLdTripleCallback {
         for (final Entry<String, String> e : dataset.getNamespaces().entrySet()) {
             availableNamespaces.put(e.getValue(), e.getKey());
         }
+        namespaces = new IriPrefixTrie<String>(availableNamespaces);
         usedNamespaces = new LinkedHashSet<String>();
 
         final int tabs = 0;
@@ -361,12 +364,12 @@ public class TurtleTripleCallback implements JsonLdTripleCallback {
             // return the bnode id
             return uri;
         }
-        for (final String prefix : availableNamespaces.keySet()) {
-            if (uri.startsWith(prefix)) {
-                usedNamespaces.add(prefix);
-                // return the prefixed URI
-                return availableNamespaces.get(prefix) + ":" + uri.substring(prefix.length());
-            }
+        // use the longest matching namespace
+        final String prefix = namespaces.longestPrefixOf(uri);
+        if (prefix != null) {
+            usedNamespaces.add(prefix);
+            // return the prefixed URI
+            return namespaces.get(prefix) + ":" + uri.substring(prefix.length());
         }
         // return the full URI
         return "<" + uri + ">";
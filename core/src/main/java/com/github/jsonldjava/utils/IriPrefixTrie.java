@@ -0,0 +1,132 @@
+package com.github.jsonldjava.utils;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable trie of IRI prefixes, used to find the prefixes of an IRI in
+ * time proportional to the length of the IRI instead of the number of
+ * prefixes.
+ *
+ * Instances are safe to share between threads.
+ *
+ * @param <V>
+ *            The type of the value associated with each prefix.
+ */
+public final class IriPrefixTrie<V> {
+
+    private static final class Node<V> {
+        private final Map<Character, Node<V>> children = new HashMap<Character, Node<V>>(4);
+        private String prefix = null;
+        private V value = null;
+    }
+
+    private final Node<V> root = new Node<V>();
+    private final int size;
+
+    /**
+     * Creates a trie holding the given prefixes and their values.
+     *
+     * @param prefixes
+     *            A map from each prefix to its value. Null keys are ignored.
+     */
+    public IriPrefixTrie(Map<String, ? extends V> prefixes) {
+        int count = 0;
+        for (final Map.Entry<String, ? extends V> entry : prefixes.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            Node<V> node = root;
+            for (int i = 0; i < entry.getKey().length(); i++) {
+                final Character c = entry.getKey().charAt(i);
+                Node<V> child = node.children.get(c);
+                if (child == null) {
+                    child = new Node<V>();
+                    node.children.put(c, child);
+                }
+                node = child;
+            }
+            if (node.prefix == null) {
+                count++;
+            }
+            node.prefix = entry.getKey();
+            node.value = entry.getValue();
+        }
+        this.size = count;
+    }
+
+    /**
+     * @return The number of prefixes in this trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of the given prefix.
+     *
+     * @param prefix
+     *            The prefix to look up.
+     * @return The value of the prefix, or null if it is not in this trie.
+     */
+    public V get(String prefix) {
+        Node<V> node = root;
+        for (int i = 0; node != null && i < prefix.length(); i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Finds the longest prefix of the given IRI, which may be the IRI itself.
+     *
+     * @param iri
+     *            The IRI to find a prefix of.
+     * @return The longest prefix of iri in this trie, or null if there is
+     *         none.
+     */
+    public String longestPrefixOf(String iri) {
+        String rval = null;
+        Node<V> node = root;
+        for (int i = 0; node != null; i++) {
+            if (node.prefix != null) {
+                rval = node.prefix;
+            }
+            if (i == iri.length()) {
+                break;
+            }
+            node = node.children.get(iri.charAt(i));
+        }
+        return rval;
+    }
+
+    /**
+     * Finds all prefixes of the given IRI that are shorter than the IRI
+     * itself.
+     *
+     * @param iri
+     *            The IRI to find prefixes of.
+     * @return The prefixes and their values, shortest first.
+     */
+    public List<Map.Entry<String, V>> properPrefixesOf(String iri) {
+        List<Map.Entry<String, V>> rval = null;
+        Node<V> node = root;
+        for (int i = 0; node != null && i < iri.length(); i++) {
+            if (node.prefix != null) {
+                if (rval == null) {
+                    rval = new ArrayList<Map.Entry<String, V>>(2);
+                }
+                rval.add(new SimpleImmutableEntry<String, V>(node.prefix, node.value));
+            }
+            node = node.children.get(iri.charAt(i));
+        }
+        if (rval == null) {
+            return Collections.emptyList();
+        }
+        return rval;
+    }
+}
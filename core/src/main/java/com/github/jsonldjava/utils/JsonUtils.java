@@ -137,6 +137,32 @@ public class JsonUtils {
         return rval;
     }
 
+    /**
+     * Reads the JSON value at the current token of the given parser, or at its
+     * next token if it has not been advanced yet, to an object that can be
+     * used as input for the {@link JsonLdApi} and {@link JsonLdProcessor}
+     * methods. The parser is left at the last token of the value, so that
+     * the elements of a large array can be read one at a time.
+     * 
+     * @param jp
+     *            The parser, which need not have a codec.
+     * @return A JSON Object, or null if the parser is at the end of its input.
+     * @throws JsonParseException
+     *             If there was a JSON related error during parsing.
+     * @throws IOException
+     *             If there was an IO error during parsing.
+     */
+    public static Object fromJsonParser(JsonParser jp) throws IOException {
+        if (jp.getCurrentToken() == null && jp.nextToken() == null) {
+            return null;
+        }
+        if (jp.getCurrentToken() == JsonToken.FIELD_NAME || jp.getCurrentToken().isStructEnd()) {
+            throw new JsonParseException("parser is not at the start of a value: "
+                    + jp.getCurrentToken(), jp.getCurrentLocation());
+        }
+        return JSON_MAPPER.readValue(jp, Object.class);
+    }
+
     /**
      * Parses a JSON-LD document from a string to an object that can be used as
      * input for the {@link JsonLdApi} and {@link JsonLdProcessor} methods.
@@ -0,0 +1,140 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class ContextCacheTest {
+
+    private static class CountingDocumentLoader extends DocumentLoader {
+
+        private final Map<String, String> documents = new LinkedHashMap<String, String>();
+        private final AtomicInteger loads = new AtomicInteger();
+
+        @Override
+        public RemoteDocument loadDocument(String url) throws JsonLdError {
+            loads.incrementAndGet();
+            final String document = documents.get(url);
+            if (document == null) {
+                throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, url);
+            }
+            try {
+                return new RemoteDocument(url, JsonUtils.fromString(document));
+            } catch (final Exception e) {
+                throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED, e);
+            }
+        }
+    }
+
+    private static JsonLdOptions options(DocumentLoader loader, ContextCache cache) {
+        final JsonLdOptions opts = new JsonLdOptions("http://example.org/");
+        opts.setDocumentLoader(loader);
+        opts.setContextCache(cache);
+        return opts;
+    }
+
+    @Test
+    public void remoteContextIsLoadedOnce() throws Exception {
+        final CountingDocumentLoader loader = new CountingDocumentLoader();
+        loader.documents.put("http://example.org/context.jsonld",
+                "{\"@context\":{\"name\":\"http://xmlns.com/foaf/0.1/name\"}}");
+        final ContextCache cache = new ContextCache();
+        final Object input = JsonUtils
+                .fromString("{\"@context\":\"context.jsonld\",\"name\":\"Alice\"}");
+
+        for (int i = 0; i < 3; i++) {
+            final Object expanded = JsonLdProcessor.expand(input, options(loader, cache));
+            assertEquals(
+                    JsonUtils.fromString("[{\"http://xmlns.com/foaf/0.1/name\":[{\"@value\":\"Alice\"}]}]"),
+                    expanded);
+        }
+        assertEquals(1, loader.loads.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void cacheIsKeyedByBase() throws Exception {
+        final CountingDocumentLoader loader = new CountingDocumentLoader();
+        loader.documents.put("http://example.org/context.jsonld",
+                "{\"@context\":{\"name\":\"http://xmlns.com/foaf/0.1/name\"}}");
+        final ContextCache cache = new ContextCache();
+        final JsonLdOptions opts = options(loader, cache);
+
+        new Context(opts).parse("http://example.org/context.jsonld");
+        opts.setBase("http://example.com/");
+        new Context(opts).parse("http://example.org/context.jsonld");
+        new Context(opts).parse("http://example.org/context.jsonld");
+
+        assertEquals(2, loader.loads.get());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void cacheIsNotUsedForNonEmptyActiveContext() throws Exception {
+        final CountingDocumentLoader loader = new CountingDocumentLoader();
+        loader.documents.put("http://example.org/context.jsonld",
+                "{\"@context\":{\"name\":\"http://xmlns.com/foaf/0.1/name\"}}");
+        final ContextCache cache = new ContextCache();
+        final Context ctx = new Context(options(loader, cache)).parse(JsonUtils
+                .fromString("{\"@vocab\":\"http://schema.org/\"}"));
+
+        ctx.parse("http://example.org/context.jsonld");
+        ctx.parse("http://example.org/context.jsonld");
+
+        assertEquals(2, loader.loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void cachedContextIsNotModifiedByLaterParsing() throws Exception {
+        final CountingDocumentLoader loader = new CountingDocumentLoader();
+        loader.documents.put("http://example.org/context.jsonld",
+                "{\"@context\":{\"name\":\"http://xmlns.com/foaf/0.1/name\"}}");
+        final ContextCache cache = new ContextCache();
+        final Context ctx = new Context(options(loader, cache));
+
+        final Object local = JsonUtils.fromString("[\"context.jsonld\",{\"name\":\"http://schema.org/name\"}]");
+        final Context first = ctx.parse(local);
+        assertEquals("http://schema.org/name", first.getTermDefinition("name").getId());
+
+        final Context second = ctx.parse("context.jsonld");
+        assertEquals("http://xmlns.com/foaf/0.1/name", second.getTermDefinition("name").getId());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedContextsAreEvicted() throws Exception {
+        final CountingDocumentLoader loader = new CountingDocumentLoader();
+        for (int i = 0; i < 3; i++) {
+            loader.documents.put("http://example.org/" + i,
+                    "{\"@context\":{\"a\":\"http://example.org/a\",\"b\":\"http://example.org/b\"}}");
+        }
+        // room for two contexts with two terms each
+        final ContextCache cache = new ContextCache(6);
+        final JsonLdOptions opts = options(loader, cache);
+
+        new Context(opts).parse("http://example.org/0");
+        new Context(opts).parse("http://example.org/1");
+        new Context(opts).parse("http://example.org/0");
+        new Context(opts).parse("http://example.org/2");
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+        assertTrue(cache.getWeight() <= cache.getMaxWeight());
+
+        // 1 was the least recently used, so 0 is still cached
+        new Context(opts).parse("http://example.org/0");
+        assertEquals(3, loader.loads.get());
+        new Context(opts).parse("http://example.org/1");
+        assertEquals(4, loader.loads.get());
+    }
+}
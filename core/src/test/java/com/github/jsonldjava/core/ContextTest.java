@@ -1,11 +1,175 @@
 package com.github.jsonldjava.core;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Test;
 
+import com.github.jsonldjava.utils.JsonUtils;
+
 public class ContextTest {
 
     @Test
     public void testRemoveBase() {
         // TODO: test if Context.removeBase actually works
     }
+
+    @Test
+    public void frozenContextCannotBeModified() throws Exception {
+        final Context ctx = new Context().parse(JsonUtils
+                .fromString("{\"@vocab\":\"http://schema.org/\",\"name\":\"http://xmlns.com/foaf/0.1/name\"}"));
+        assertSame(ctx, ctx.freeze());
+        assertTrue(ctx.isFrozen());
+        try {
+            ctx.put("@language", "en");
+            fail("Expected a frozen context to reject put");
+        } catch (final UnsupportedOperationException e) {
+        }
+        try {
+            ctx.keySet().remove("@vocab");
+            fail("Expected a frozen context to reject remove");
+        } catch (final UnsupportedOperationException e) {
+        }
+        assertEquals("http://schema.org/", ctx.get("@vocab"));
+        final Map<String, Object> containers = (Map<String, Object>) ctx.getInverse().get(
+                "http://xmlns.com/foaf/0.1/name");
+        final Map<String, Object> languages = (Map<String, Object>) ((Map<String, Object>) containers
+                .get("@none")).get("@language");
+        try {
+            languages.put("@none", "other");
+            fail("Expected the inverse of a frozen context to reject put");
+        } catch (final UnsupportedOperationException e) {
+        }
+        assertEquals("name", languages.get("@none"));
+
+        final Context copy = ctx.clone();
+        assertFalse(copy.isFrozen());
+        copy.put("@language", "en");
+        assertFalse(ctx.containsKey("@language"));
+    }
+
+    @Test
+    public void frozenContextIsUsedWithoutCopying() throws Exception {
+        final Context ctx = new Context().parse(
+                JsonUtils.fromString("{\"name\":\"http://xmlns.com/foaf/0.1/name\"}")).freeze();
+        assertSame(ctx, new Context().parse(ctx));
+
+        final Context derived = new Context().parse(ctx).parse(
+                JsonUtils.fromString("{\"knows\":\"http://xmlns.com/foaf/0.1/knows\"}"));
+        assertFalse(derived.isFrozen());
+        assertEquals("http://xmlns.com/foaf/0.1/name", derived.getTermDefinition("name").getId());
+        assertEquals(null, ctx.getTermDefinition("knows"));
+    }
+
+    @Test
+    public void frozenContextIsSharedBetweenThreads() throws Exception {
+        final Object context = JsonUtils
+                .fromString("{\"name\":\"http://xmlns.com/foaf/0.1/name\","
+                        + "\"knows\":{\"@id\":\"http://xmlns.com/foaf/0.1/knows\",\"@type\":\"@id\"}}");
+        final Context frozen = new Context().parse(context).freeze();
+        final String input = "{\"@id\":\"http://example.org/%d\","
+                + "\"http://xmlns.com/foaf/0.1/name\":\"Person %d\","
+                + "\"http://xmlns.com/foaf/0.1/knows\":{\"@id\":\"http://example.org/0\"}}";
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Map<String, Object>>> results = new ArrayList<Future<Map<String, Object>>>();
+            for (int i = 0; i < 32; i++) {
+                final int n = i;
+                results.add(executor.submit(new Callable<Map<String, Object>>() {
+                    @Override
+                    public Map<String, Object> call() throws Exception {
+                        return JsonLdProcessor.compact(
+                                JsonUtils.fromString(String.format(input, n, n)), frozen,
+                                new JsonLdOptions());
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                final Map<String, Object> compacted = results.get(i).get();
+                assertEquals(context, compacted.get("@context"));
+                assertEquals("Person " + i, compacted.get("name"));
+                assertEquals("http://example.org/0", compacted.get("knows"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void serializeRoundTripsTermDefinitions() throws Exception {
+        final Object context = JsonUtils.fromString("{\"@vocab\":\"http://schema.org/\","
+                + "\"foaf\":\"http://xmlns.com/foaf/0.1/\","
+                + "\"name\":\"foaf:name\","
+                + "\"knows\":{\"@id\":\"foaf:knows\",\"@type\":\"@id\",\"@container\":\"@set\"},"
+                + "\"label\":{\"@id\":\"http://www.w3.org/2000/01/rdf-schema#label\",\"@language\":\"EN\"},"
+                + "\"isKnownBy\":{\"@reverse\":\"foaf:knows\"}}");
+        final Context ctx = new Context().parse(context);
+
+        final TermDefinition knows = ctx.getTermDefinition("knows");
+        assertEquals("http://xmlns.com/foaf/0.1/knows", knows.getId());
+        assertEquals(TermDefinition.Container.SET, knows.getContainer());
+        assertEquals("@id", knows.getTypeMapping());
+        assertFalse(knows.isReverse());
+        assertTrue(ctx.getTermDefinition("isKnownBy").isReverse());
+        assertEquals("en", ctx.getTermDefinition("label").getLanguageMapping());
+
+        assertEquals(JsonUtils.fromString("{\"@context\":{\"@vocab\":\"http://schema.org/\","
+                + "\"foaf\":\"http://xmlns.com/foaf/0.1/\","
+                + "\"name\":\"foaf:name\","
+                + "\"knows\":{\"@id\":\"foaf:knows\",\"@type\":\"@id\",\"@container\":\"@set\"},"
+                + "\"label\":{\"@id\":\"http://www.w3.org/2000/01/rdf-schema#label\",\"@language\":\"en\"},"
+                + "\"isKnownBy\":{\"@reverse\":\"foaf:knows\"}}}"), ctx.serialize());
+    }
+
+    @Test
+    public void expandedIrisFollowContextChanges() throws Exception {
+        final Context ctx = new Context(new JsonLdOptions("http://example.org/base/")).parse(JsonUtils
+                .fromString("{\"@vocab\":\"http://schema.org/\",\"foaf\":\"http://xmlns.com/foaf/0.1/\"}"));
+        assertEquals("http://schema.org/name", ctx.expandIri("name", false, true, null, null));
+        assertEquals("http://schema.org/name", ctx.expandIri("name", false, true, null, null));
+        assertEquals("http://example.org/base/name", ctx.expandIri("name", true, false, null, null));
+        assertEquals("http://xmlns.com/foaf/0.1/knows",
+                ctx.expandIri("foaf:knows", false, true, null, null));
+
+        final Context derived = ctx.parse(JsonUtils
+                .fromString("{\"name\":\"foaf:name\",\"foaf\":\"http://example.org/foaf#\"}"));
+        assertEquals("http://example.org/foaf#name", derived.expandIri("name", false, true, null, null));
+        assertEquals("http://example.org/foaf#knows",
+                derived.expandIri("foaf:knows", false, true, null, null));
+        assertEquals("http://schema.org/name", ctx.expandIri("name", false, true, null, null));
+
+        ctx.put("@vocab", "http://example.com/vocab#");
+        assertEquals("http://example.com/vocab#name", ctx.expandIri("name", false, true, null, null));
+    }
+
+    @Test
+    public void compactIriUsesShortestMatchingPrefix() throws Exception {
+        final Context ctx = new Context().parse(JsonUtils.fromString("{"
+                + "\"ex\":\"http://example.org/\","
+                + "\"exv\":\"http://example.org/vocab/\","
+                + "\"exvp\":\"http://example.org/vocab/p\","
+                + "\"other\":\"http://example.com/\","
+                + "\"name\":{\"@id\":\"http://example.org/vocab/name\",\"@container\":\"@set\"},"
+                + "\"names\":{\"@id\":\"http://example.org/vocab/name\",\"@container\":\"@list\"}}"));
+
+        assertEquals("exv:age", ctx.compactIri("http://example.org/vocab/age", true));
+        assertEquals("exv:place", ctx.compactIri("http://example.org/vocab/place", true));
+        assertEquals("ex:thing", ctx.compactIri("http://example.org/thing", true));
+        assertEquals("http://example.net/thing", ctx.compactIri("http://example.net/thing", true));
+        assertEquals("name", ctx.compactIri("http://example.org/vocab/name", true));
+        assertEquals("names", ctx.compactIri("http://example.org/vocab/name",
+                JsonUtils.fromString("{\"@list\":[]}"), true, false));
+    }
 }
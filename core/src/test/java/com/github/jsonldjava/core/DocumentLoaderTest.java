@@ -0,0 +1,472 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.jsonldjava.utils.JsonUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class DocumentLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static RemoteDocument context(String url, String term) throws JsonLdError {
+        try {
+            return new RemoteDocument(url, JsonUtils.fromString("{\"@context\":{\"" + term
+                    + "\":\"http://example.org/" + term + "\"}}"));
+        } catch (final Exception e) {
+            throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED, e);
+        }
+    }
+
+    @Test
+    public void contextArrayIsLoadedConcurrently() throws Exception {
+        final CountDownLatch allStarted = new CountDownLatch(3);
+        final JsonLdOptions opts = new JsonLdOptions("http://example.org/");
+        opts.setDocumentLoader(new DocumentLoader() {
+            @Override
+            public RemoteDocument loadDocument(String url) throws JsonLdError {
+                allStarted.countDown();
+                try {
+                    // only returns in time if all three loads are in flight
+                    if (!allStarted.await(10, TimeUnit.SECONDS)) {
+                        throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED,
+                                "loads were not concurrent");
+                    }
+                } catch (final InterruptedException e) {
+                    throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, url);
+                }
+                return context(url, url.substring(url.lastIndexOf('/') + 1));
+            }
+        });
+
+        final Context ctx = new Context(opts).parse(JsonUtils.fromString("[\"a\",\"b\",\"c\"]"));
+        assertEquals("http://example.org/a", ctx.getTermDefinition("a").getId());
+        assertEquals("http://example.org/b", ctx.getTermDefinition("b").getId());
+        assertEquals("http://example.org/c", ctx.getTermDefinition("c").getId());
+    }
+
+    @Test
+    public void loadsWaitingForAHostDoNotHoldThreads() throws Exception {
+        final CountDownLatch slowStarted = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final DocumentLoader loader = new DocumentLoader() {
+            @Override
+            public RemoteDocument loadDocument(String url) throws JsonLdError {
+                if (url.startsWith("http://slow.example.org/")) {
+                    slowStarted.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (final InterruptedException e) {
+                        throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, url);
+                    }
+                }
+                return context(url, "name");
+            }
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        loader.setExecutor(executor);
+        loader.setMaxRequestsPerHost(1);
+        try {
+            assertEquals(DocumentLoader.DEFAULT_MAX_REQUESTS_PER_HOST,
+                    new DocumentLoader().getMaxRequestsPerHost());
+
+            final Future<RemoteDocument> slow1 = loader.loadDocumentAsync("http://slow.example.org/1");
+            final Future<RemoteDocument> slow2 = loader.loadDocumentAsync("http://slow.example.org/2");
+            // the second slow load waits without taking the other thread
+            assertEquals("http://fast.example.org/1",
+                    loader.loadDocumentAsync("http://fast.example.org/1")
+                            .get(10, TimeUnit.SECONDS).getDocumentUrl());
+            assertEquals(1, slowStarted.getCount());
+
+            // raising the limit starts the waiting load
+            loader.setMaxRequestsPerHost(2);
+            assertTrue(slowStarted.await(10, TimeUnit.SECONDS));
+            release.countDown();
+            assertTrue(slow1.get(10, TimeUnit.SECONDS).getDocument() instanceof Map);
+            assertTrue(slow2.get(10, TimeUnit.SECONDS).getDocument() instanceof Map);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void laterContextsOverrideEarlierOnes() throws Exception {
+        final JsonLdOptions opts = new JsonLdOptions("http://example.org/");
+        opts.setDocumentLoader(new DocumentLoader() {
+            @Override
+            public RemoteDocument loadDocument(String url) throws JsonLdError {
+                if (url.endsWith("slow")) {
+                    try {
+                        Thread.sleep(100);
+                    } catch (final InterruptedException e) {
+                        throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, url);
+                    }
+                }
+                try {
+                    return new RemoteDocument(url, JsonUtils.fromString("{\"@context\":{"
+                            + "\"name\":\"" + url + "#name\"}}"));
+                } catch (final Exception e) {
+                    throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED, e);
+                }
+            }
+        });
+
+        final Context ctx = new Context(opts).parse(JsonUtils.fromString("[\"fast\",\"slow\"]"));
+        assertEquals("http://example.org/slow#name", ctx.getTermDefinition("name").getId());
+    }
+
+    @Test
+    public void loadErrorsArePropagated() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final JsonLdOptions opts = new JsonLdOptions("http://example.org/");
+        opts.setDocumentLoader(new DocumentLoader() {
+            @Override
+            public RemoteDocument loadDocument(String url) throws JsonLdError {
+                loads.incrementAndGet();
+                if (url.endsWith("missing")) {
+                    throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, url);
+                }
+                return context(url, "name");
+            }
+        });
+
+        try {
+            new Context(opts).parse(JsonUtils.fromString("[\"a\",\"missing\"]"));
+            fail("Expected the missing context to fail");
+        } catch (final JsonLdError e) {
+            assertEquals(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, e.getType());
+        }
+        assertTrue(loads.get() >= 1);
+    }
+
+    @Test
+    public void remoteContextsArePrefetchedBeforeExpansion() throws Exception {
+        final Thread caller = Thread.currentThread();
+        final AtomicInteger callerLoads = new AtomicInteger();
+        final AtomicInteger loads = new AtomicInteger();
+        final JsonLdOptions opts = new JsonLdOptions("http://example.org/");
+        opts.setPrefetchContexts(true);
+        opts.setDocumentLoader(new DocumentLoader() {
+            @Override
+            public RemoteDocument loadDocument(String url) throws JsonLdError {
+                loads.incrementAndGet();
+                if (Thread.currentThread() == caller) {
+                    callerLoads.incrementAndGet();
+                }
+                try {
+                    if (url.endsWith("outer")) {
+                        // a remote context that refers to another one
+                        return new RemoteDocument(url, JsonUtils.fromString(
+                                "{\"@context\":[\"inner\",{\"@vocab\":\"http://example.org/\"}]}"));
+                    }
+                } catch (final Exception e) {
+                    throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED, e);
+                }
+                return context(url, url.substring(url.lastIndexOf('/') + 1));
+            }
+        });
+        final Object input = JsonUtils.fromString("{\"@context\":\"outer\",\"name\":\"Alice\","
+                + "\"knows\":{\"@context\":\"nested\",\"nested\":\"Bob\"}}");
+
+        final Object expanded = JsonLdProcessor.expand(input, opts);
+
+        assertEquals(JsonUtils.fromString("[{\"http://example.org/name\":[{\"@value\":\"Alice\"}],"
+                + "\"http://example.org/knows\":[{\"http://example.org/nested\":[{\"@value\":\"Bob\"}]}]}]"),
+                expanded);
+        assertEquals(3, loads.get());
+        assertEquals(0, callerLoads.get());
+    }
+
+    @Test
+    public void concurrentLoadsOfTheSameUrlAreCoalesced() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/context", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                try {
+                    // keep the request in flight while the other threads start
+                    Thread.sleep(200);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                final byte[] body = "{\"@context\":{\"name\":\"http://example.org/name\"}}"
+                        .getBytes("UTF-8");
+                exchange.getResponseHeaders().add("Content-Type", "application/ld+json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        final ExecutorService workers = Executors.newFixedThreadPool(16);
+        try {
+            final String url = "http://localhost:" + server.getAddress().getPort() + "/context";
+            final DocumentLoader loader = new DocumentLoader();
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<RemoteDocument>> results = new ArrayList<Future<RemoteDocument>>();
+            for (int i = 0; i < 16; i++) {
+                results.add(workers.submit(new Callable<RemoteDocument>() {
+                    @Override
+                    public RemoteDocument call() throws Exception {
+                        start.await();
+                        return loader.loadDocument(url);
+                    }
+                }));
+            }
+            start.countDown();
+            final Object document = results.get(0).get().getDocument();
+            assertTrue(document instanceof Map);
+            for (final Future<RemoteDocument> result : results) {
+                assertSame(document, result.get().getDocument());
+            }
+            assertEquals(1, requests.get());
+        } finally {
+            workers.shutdown();
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdown();
+        }
+    }
+
+    /**
+     * Starts a server that serves a context for all paths, except those
+     * starting with /missing while it has not been told otherwise.
+     */
+    private static HttpServer startServer(final AtomicInteger requests,
+            final AtomicInteger missing) throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                if (missing.get() > 0 && exchange.getRequestURI().getPath().startsWith("/missing")) {
+                    exchange.sendResponseHeaders(404, -1);
+                } else {
+                    final byte[] body = "{\"@context\":{}}".getBytes("UTF-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    public void failuresAreRemembered() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger missing = new AtomicInteger(1);
+        final HttpServer server = startServer(requests, missing);
+        final DocumentLoader loader = new DocumentLoader(new HttpClientOptions());
+        try {
+            final String url = "http://localhost:" + server.getAddress().getPort() + "/missing";
+            try {
+                loader.loadDocument(url);
+                fail("Expected a missing document to fail");
+            } catch (final JsonLdError e) {
+                assertEquals(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, e.getType());
+            }
+
+            missing.set(0);
+            try {
+                loader.loadDocument(url);
+                fail("Expected the failure to be remembered");
+            } catch (final JsonLdError e) {
+                assertEquals(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, e.getType());
+            }
+            assertEquals(1, requests.get());
+
+            // loaders with another HTTP client have their own failures
+            final DocumentLoader other = new DocumentLoader(new HttpClientOptions());
+            try {
+                assertTrue(other.loadDocument(url).getDocument() instanceof Map);
+            } finally {
+                other.shutdown();
+            }
+
+            loader.clearFailures();
+            assertTrue(loader.loadDocument(url).getDocument() instanceof Map);
+        } finally {
+            loader.shutdown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void failureSettingsOnlyApplyToTheirLoader() throws Exception {
+        final AtomicInteger missing = new AtomicInteger(1);
+        final HttpServer server = startServer(new AtomicInteger(), missing);
+        // both share the failures of the default HTTP client
+        final DocumentLoader loader = new DocumentLoader();
+        final DocumentLoader other = new DocumentLoader();
+        other.setFailureTtl(0);
+        other.setCircuitBreakerThreshold(0);
+        try {
+            assertEquals(DocumentLoader.DEFAULT_FAILURE_TTL, loader.getFailureTtl());
+            assertEquals(DocumentLoader.DEFAULT_CIRCUIT_BREAKER_THRESHOLD,
+                    loader.getCircuitBreakerThreshold());
+
+            final String url = "http://localhost:" + server.getAddress().getPort() + "/missing";
+            try {
+                loader.loadDocument(url);
+                fail("Expected a missing document to fail");
+            } catch (final JsonLdError e) {
+                assertEquals(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, e.getType());
+            }
+
+            missing.set(0);
+            assertTrue(other.loadDocument(url).getDocument() instanceof Map);
+            try {
+                loader.loadDocument(url);
+                fail("Expected the failure to be remembered");
+            } catch (final JsonLdError e) {
+                assertEquals(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, e.getType());
+            }
+        } finally {
+            loader.clearFailures();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void hostsThatKeepFailingAreNotRetried() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final HttpServer server = startServer(requests, new AtomicInteger(1));
+        final DocumentLoader loader = new DocumentLoader(new HttpClientOptions());
+        loader.setFailureTtl(0);
+        loader.setCircuitBreakerDelay(200);
+        try {
+            final String url = "http://localhost:" + server.getAddress().getPort();
+            for (int i = 0; i < loader.getCircuitBreakerThreshold(); i++) {
+                try {
+                    loader.loadDocument(url + "/missing" + i);
+                    fail("Expected a missing document to fail");
+                } catch (final JsonLdError e) {
+                    assertEquals(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, e.getType());
+                }
+            }
+
+            // the document exists, but the circuit breaker is open
+            try {
+                loader.loadDocument(url + "/context");
+                fail("Expected the circuit breaker to be open");
+            } catch (final JsonLdError e) {
+                assertEquals(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, e.getType());
+            }
+            assertEquals(loader.getCircuitBreakerThreshold(), requests.get());
+
+            // a trial request is let through after the delay
+            Thread.sleep(300);
+            assertTrue(loader.loadDocument(url + "/context").getDocument() instanceof Map);
+        } finally {
+            loader.shutdown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void localFailuresAreNotRemembered() throws Exception {
+        final DocumentLoader loader = new DocumentLoader();
+        for (int i = 0; i <= loader.getCircuitBreakerThreshold(); i++) {
+            try {
+                loader.loadDocument(new File(folder.getRoot(), "missing" + i).toURI().toString());
+                fail("Expected a missing document to fail");
+            } catch (final JsonLdError e) {
+                assertEquals(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, e.getType());
+            }
+        }
+
+        final File file = new File(folder.getRoot(), "missing0");
+        write(file, "{\"@context\":{}}");
+        assertTrue(loader.loadDocument(file.toURI().toString()).getDocument() instanceof Map);
+    }
+
+    private static void write(File file, String content) throws IOException {
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void loadersCanHaveTheirOwnHttpClient() throws Exception {
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                if (exchange.getRequestURI().getPath().equals("/slow")) {
+                    try {
+                        Thread.sleep(2000);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                final byte[] body = "{\"@context\":{}}".getBytes("UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        final HttpClientOptions options = new HttpClientOptions();
+        options.setSocketTimeout(200);
+        options.setMaxConnectionsPerRoute(2);
+        final DocumentLoader loader = new DocumentLoader(options);
+        final DocumentLoader other = new DocumentLoader(options);
+        try {
+            final String url = "http://localhost:" + server.getAddress().getPort();
+            assertTrue(loader.loadDocument(url + "/fast").getDocument() instanceof Map);
+            assertNotSame(loader.getLoaderHttpClient(), other.getLoaderHttpClient());
+            assertNotSame(DocumentLoader.getHttpClient(), loader.getLoaderHttpClient());
+
+            final long start = System.currentTimeMillis();
+            try {
+                loader.loadDocument(url + "/slow");
+                fail("Expected the socket timeout to expire");
+            } catch (final JsonLdError e) {
+                assertEquals(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, e.getType());
+            }
+            assertTrue(System.currentTimeMillis() - start < 2000);
+        } finally {
+            loader.shutdown();
+            other.shutdown();
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdown();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.jsonldjava.utils.JsonUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class FileCachingDocumentLoaderTest {
+
+    private static final String CONTEXT = "{\"@context\":{\"name\":\"http://example.org/name\"}}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private String url;
+    // the If-None-Match header of each request, or null
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<String>());
+    private volatile long delay = 0;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/context", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                final String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+                requests.add(etag);
+                try {
+                    Thread.sleep(delay);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                if ("\"v1\"".equals(etag)) {
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    final byte[] body = CONTEXT.getBytes("UTF-8");
+                    exchange.getResponseHeaders().add("Content-Type", "application/ld+json");
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/context";
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdown();
+    }
+
+    @Test
+    public void freshDocumentsAreServedFromDisk() throws Exception {
+        final FileCachingDocumentLoader loader = new FileCachingDocumentLoader(folder.getRoot());
+        assertEquals(JsonUtils.fromString(CONTEXT), loader.loadDocument(url).getDocument());
+
+        // a new loader, as after a restart
+        final FileCachingDocumentLoader restarted = new FileCachingDocumentLoader(
+                folder.getRoot());
+        assertEquals(JsonUtils.fromString(CONTEXT), restarted.loadDocument(url).getDocument());
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void staleDocumentsAreRevalidated() throws Exception {
+        final FileCachingDocumentLoader loader = new FileCachingDocumentLoader(folder.getRoot());
+        loader.setMaxAge(0);
+        loader.loadDocument(url);
+        assertEquals(JsonUtils.fromString(CONTEXT), loader.loadDocument(url).getDocument());
+
+        assertEquals(2, requests.size());
+        assertEquals(null, requests.get(0));
+        assertEquals("\"v1\"", requests.get(1));
+    }
+
+    @Test
+    public void staleDocumentsAreServedWhenTheServerIsDown() throws Exception {
+        final FileCachingDocumentLoader loader = new FileCachingDocumentLoader(folder.getRoot());
+        loader.setMaxAge(0);
+        loader.loadDocument(url);
+        server.stop(0);
+
+        assertEquals(JsonUtils.fromString(CONTEXT), loader.loadDocument(url).getDocument());
+    }
+
+    @Test
+    public void offlineModeOnlyUsesTheCache() throws Exception {
+        final FileCachingDocumentLoader loader = new FileCachingDocumentLoader(folder.getRoot());
+        loader.setMaxAge(0);
+        loader.loadDocument(url);
+        loader.setOffline(true);
+
+        assertEquals(JsonUtils.fromString(CONTEXT), loader.loadDocument(url).getDocument());
+        assertEquals(1, requests.size());
+        try {
+            loader.loadDocument(url + "/missing");
+            fail("Expected a document that is not cached to fail while offline");
+        } catch (final JsonLdError e) {
+            assertEquals(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED, e.getType());
+        }
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void concurrentLoadsOfAnUncachedDocumentShareARequest() throws Exception {
+        // keep the request in flight while the other threads start
+        delay = 200;
+        final FileCachingDocumentLoader loader = new FileCachingDocumentLoader(folder.getRoot());
+        final ExecutorService workers = Executors.newFixedThreadPool(16);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<RemoteDocument>> results = new ArrayList<Future<RemoteDocument>>();
+            for (int i = 0; i < 16; i++) {
+                results.add(workers.submit(new Callable<RemoteDocument>() {
+                    @Override
+                    public RemoteDocument call() throws Exception {
+                        start.await();
+                        return loader.loadDocument(url);
+                    }
+                }));
+            }
+            start.countDown();
+            for (final Future<RemoteDocument> result : results) {
+                assertEquals(JsonUtils.fromString(CONTEXT), result.get().getDocument());
+            }
+            assertEquals(1, requests.size());
+        } finally {
+            workers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class JsonLdApiTest {
+
+    @Test
+    public void repeatedEmbeddedContextIsProcessedOnce() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final JsonLdOptions opts = new JsonLdOptions();
+        opts.setDocumentLoader(new DocumentLoader() {
+            @Override
+            public RemoteDocument loadDocument(String url) throws JsonLdError {
+                loads.incrementAndGet();
+                try {
+                    return new RemoteDocument(url, JsonUtils.fromString("{\"@context\":{"
+                            + "\"name\":\"http://xmlns.com/foaf/0.1/name\"}}"));
+                } catch (final Exception e) {
+                    throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED, e);
+                }
+            }
+        });
+        final Object input = JsonUtils.fromString("["
+                + "{\"@context\":\"http://example.org/context\",\"name\":\"Alice\"},"
+                + "{\"@context\":\"http://example.org/context\",\"name\":\"Bob\"},"
+                + "{\"@context\":\"http://example.org/context\",\"name\":\"Carol\"}]");
+
+        final Object expanded = JsonLdProcessor.expand(input, opts);
+
+        assertEquals(1, loads.get());
+        assertEquals(JsonUtils.fromString("["
+                + "{\"http://xmlns.com/foaf/0.1/name\":[{\"@value\":\"Alice\"}]},"
+                + "{\"http://xmlns.com/foaf/0.1/name\":[{\"@value\":\"Bob\"}]},"
+                + "{\"http://xmlns.com/foaf/0.1/name\":[{\"@value\":\"Carol\"}]}]"), expanded);
+    }
+
+    @Test
+    public void embeddedContextIsDerivedPerActiveContext() throws Exception {
+        final Object input = JsonUtils.fromString("["
+                + "{\"@context\":{\"@vocab\":\"http://a.example/\"},"
+                + " \"child\":{\"@context\":{\"name\":\"@id\"},\"name\":\"http://x.example/\",\"p\":\"1\"}},"
+                + "{\"@context\":{\"@vocab\":\"http://b.example/\"},"
+                + " \"child\":{\"@context\":{\"name\":\"@id\"},\"name\":\"http://x.example/\",\"p\":\"2\"}}]");
+
+        final Object expanded = JsonLdProcessor.expand(input, new JsonLdOptions());
+
+        assertEquals(JsonUtils.fromString("["
+                + "{\"http://a.example/child\":[{\"@id\":\"http://x.example/\",\"http://a.example/p\":[{\"@value\":\"1\"}]}]},"
+                + "{\"http://b.example/child\":[{\"@id\":\"http://x.example/\",\"http://b.example/p\":[{\"@value\":\"2\"}]}]}]"),
+                expanded);
+    }
+
+    @Test
+    public void compactFromRDFMatchesCompactingFromRDFOutput() throws Exception {
+        final String rdf = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+        final String nquads = "<http://example.org/a> <http://example.org/name> \"A\" .\n"
+                + "<http://example.org/a> <" + rdf + "type> <http://example.org/T> .\n"
+                + "<http://example.org/a> <http://example.org/age> "
+                + "\"42\"^^<http://www.w3.org/2001/XMLSchema#integer> .\n"
+                + "<http://example.org/a> <http://example.org/list> _:l .\n"
+                + "_:l <" + rdf + "first> \"1\" .\n"
+                + "_:l <" + rdf + "rest> <" + rdf + "nil> .\n"
+                + "<http://example.org/b> <http://example.org/name> \"B\" <http://example.org/g> .\n";
+        final Object context = JsonUtils.fromString("{\"@context\":{\"ex\":\"http://example.org/\","
+                + "\"name\":\"ex:name\"}}");
+        final JsonLdOptions opts = new JsonLdOptions();
+        opts.setUseNativeTypes(true);
+
+        final Object expected = JsonLdProcessor.compact(JsonLdProcessor.fromRDF(nquads, opts),
+                context, opts);
+        assertEquals(expected, JsonLdProcessor.compactFromRDF(nquads, context, opts));
+        assertEquals(expected, JsonLdProcessor.compactFromRDF(
+                RDFDatasetUtils.parseNQuads(nquads), context, new JsonLdOptions() {
+                    {
+                        setUseNativeTypes(true);
+                    }
+                }));
+    }
+
+    @Test
+    public void alreadyExpandedInputIsUsedAsIs() throws Exception {
+        final Object input = JsonUtils.fromString("{\"@context\":{\"@vocab\":\"http://example.org/\","
+                + "\"knows\":{\"@type\":\"@id\"}},\"@id\":\"http://example.org/a\","
+                + "\"@type\":\"Person\",\"name\":\"A\",\"knows\":{\"@id\":\"_:b\",\"name\":\"B\"}}");
+        final Object context = JsonUtils.fromString("{\"@context\":{\"@vocab\":\"http://example.org/\"}}");
+        final Object frame = JsonUtils.fromString("{\"@context\":{\"@vocab\":\"http://example.org/\"},"
+                + "\"@type\":\"Person\"}");
+        final Object expanded = JsonLdProcessor.expand(input, new JsonLdOptions());
+        final Object copy = JsonUtils.fromString(JsonUtils.toString(expanded));
+        final JsonLdOptions opts = new JsonLdOptions();
+        opts.setInputExpanded(true);
+
+        assertEquals(JsonLdProcessor.compact(input, context, new JsonLdOptions()),
+                JsonLdProcessor.compact(expanded, context, opts));
+        assertEquals(JsonLdProcessor.flatten(input, context, new JsonLdOptions()),
+                JsonLdProcessor.flatten(expanded, context, opts));
+        assertEquals(JsonLdProcessor.frame(input, frame, new JsonLdOptions()),
+                JsonLdProcessor.frame(expanded, frame, opts));
+        assertEquals(JsonLdProcessor.toRDF(input, new JsonLdOptions()),
+                JsonLdProcessor.toRDF(expanded, opts));
+        assertEquals(copy, expanded);
+    }
+
+    @Test
+    public void unorderedProcessingGivesEquivalentOutput() throws Exception {
+        final Object input = JsonUtils.fromString("{\"@context\":{\"@vocab\":\"http://example.org/\"},"
+                + "\"@graph\":[{\"@id\":\"http://example.org/z\",\"zeta\":\"Z\",\"alpha\":{\"@id\":"
+                + "\"http://example.org/a\"}},{\"@id\":\"http://example.org/a\",\"@type\":\"T\","
+                + "\"name\":\"A\",\"list\":{\"@list\":[3,2,1]}}]}");
+        final Object context = JsonUtils.fromString("{\"@context\":{\"@vocab\":\"http://example.org/\"}}");
+        final Object frame = JsonUtils.fromString("{\"@context\":{\"@vocab\":\"http://example.org/\"},"
+                + "\"@type\":\"T\"}");
+        final JsonLdOptions unordered = new JsonLdOptions();
+        unordered.setOrdered(false);
+
+        final List<Object> expanded = JsonLdProcessor.expand(input, unordered);
+        assertEquals(Arrays.asList("@id", "http://example.org/zeta", "http://example.org/alpha"),
+                new ArrayList<String>(((Map<String, Object>) expanded.get(0)).keySet()));
+        assertTrue(JsonLdUtils.deepCompare(JsonLdProcessor.expand(input, new JsonLdOptions()),
+                expanded));
+        assertTrue(JsonLdUtils.deepCompare(
+                JsonLdProcessor.compact(input, context, new JsonLdOptions()),
+                JsonLdProcessor.compact(input, context, unordered)));
+        assertTrue(JsonLdUtils.deepCompare(
+                JsonLdProcessor.flatten(input, context, new JsonLdOptions()),
+                JsonLdProcessor.flatten(input, context, unordered)));
+        assertTrue(JsonLdUtils.deepCompare(
+                JsonLdProcessor.frame(input, frame, new JsonLdOptions()),
+                JsonLdProcessor.frame(input, frame, unordered)));
+        final List<String> ordered = Arrays.asList(((String) JsonLdProcessor.toRDF(input,
+                new JsonLdOptions() {
+                    {
+                        format = "application/nquads";
+                    }
+                })).split("\n"));
+        final List<String> quads = new ArrayList<String>(Arrays.asList(((String) JsonLdProcessor
+                .toRDF(input, new JsonLdOptions() {
+                    {
+                        setOrdered(false);
+                        format = "application/nquads";
+                    }
+                })).split("\n")));
+        Collections.sort(quads);
+        assertEquals(ordered, quads);
+    }
+
+    @Test
+    public void nodeMapGenerationLeavesItsInputAlone() throws Exception {
+        final Object expanded = JsonLdProcessor.expand(JsonUtils.fromString("{\"@context\":{"
+                + "\"@vocab\":\"http://example.org/\"},\"@id\":\"_:g\",\"@type\":\"_:T\","
+                + "\"@graph\":[{\"@id\":\"http://example.org/a\",\"@index\":\"i\","
+                + "\"@reverse\":{\"knows\":{\"@id\":\"_:b\",\"name\":\"B\"}},"
+                + "\"value\":{\"@value\":\"v\",\"@type\":\"http://example.org/D\"},\"list\":{\"@list\":[{\"name\":\"C\"}]}}]}"),
+                new JsonLdOptions());
+        final Object copy = JsonUtils.fromString(JsonUtils.toString(expanded));
+        final JsonLdOptions opts = new JsonLdOptions();
+        opts.setInputExpanded(true);
+
+        final Object flattened = JsonLdProcessor.flatten(expanded, null, opts);
+        assertEquals(copy, expanded);
+        assertEquals(JsonLdProcessor.flatten(copy, null, new JsonLdOptions()), flattened);
+        JsonLdProcessor.toRDF(expanded, opts);
+        JsonLdProcessor.frame(expanded, JsonUtils.fromString("{}"), opts);
+        assertEquals(copy, expanded);
+    }
+
+    private ExecutorService executor;
+
+    @Before
+    public void startExecutor() {
+        // few threads make the calling threads run most of the nested tasks
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void stopExecutor() {
+        executor.shutdown();
+    }
+
+    private JsonLdOptions parallelOptions(boolean ordered) {
+        final JsonLdOptions opts = new JsonLdOptions();
+        opts.setOrdered(ordered);
+        opts.setExecutor(executor);
+        opts.setParallelThreshold(3);
+        return opts;
+    }
+
+    /**
+     * A document large enough to be processed in parallel, with embedded
+     * contexts, lists, repeated and embedded blank nodes, and named graphs.
+     */
+    private static Object parallelFixture() throws Exception {
+        final StringBuilder json = new StringBuilder("{\"@context\":{"
+                + "\"@vocab\":\"http://example.org/\",\"knows\":{\"@type\":\"@id\"}},\"@graph\":[");
+        for (int i = 0; i < 100; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"@context\":{\"n\":\"http://example.org/n")
+                    .append(i % 3).append("\"},\"@id\":\"_:n").append(i % 7)
+                    .append("\",\"@type\":\"_:T\",\"knows\":[\"http://example.org/").append(i + 1)
+                    .append("\",{\"@id\":\"_:b0\"},{\"name\":\"anonymous\"}],\"label\":\"_:b1\",")
+                    .append("\"n\":[1,2,3,4,5,6,7],\"list\":{\"@list\":[").append(i)
+                    .append(",{\"name\":\"x\"},null]}},{\"@id\":\"_:g").append(i % 2)
+                    .append("\",\"@graph\":[{\"@id\":\"http://example.org/").append(i % 5)
+                    .append("\",\"@index\":\"i").append(i % 5).append("\",\"name\":\"x\"}]}");
+        }
+        return JsonUtils.fromString(json.append("]}").toString());
+    }
+
+    @Test
+    public void parallelProcessingMatchesSequentialProcessing() throws Exception {
+        final Object input = parallelFixture();
+        final Object context = JsonUtils.fromString("{\"@context\":{\"@vocab\":"
+                + "\"http://example.org/\",\"knows\":{\"@type\":\"@id\"}}}");
+        for (final boolean ordered : new boolean[] { true, false }) {
+            final JsonLdOptions sequential = new JsonLdOptions();
+            sequential.setOrdered(ordered);
+            final JsonLdOptions parallel = parallelOptions(ordered);
+
+            assertEquals(JsonLdProcessor.expand(input, sequential),
+                    JsonLdProcessor.expand(input, parallel));
+            assertEquals(JsonLdProcessor.compact(input, context, sequential),
+                    JsonLdProcessor.compact(input, context, parallel));
+            assertEquals(JsonLdProcessor.flatten(input, context, sequential),
+                    JsonLdProcessor.flatten(input, context, parallel));
+            assertEquals(JsonLdProcessor.frame(input, JsonUtils.fromString("{}"), sequential),
+                    JsonLdProcessor.frame(input, JsonUtils.fromString("{}"), parallel));
+            sequential.format = "application/nquads";
+            parallel.format = "application/nquads";
+            assertEquals(JsonLdProcessor.toRDF(input, sequential),
+                    JsonLdProcessor.toRDF(input, parallel));
+        }
+    }
+
+    @Test
+    public void parallelExpansionReportsErrors() throws Exception {
+        try {
+            JsonLdProcessor.expand(JsonUtils.fromString("[{},{},{},{},{},{},{\"@id\":5}]"),
+                    parallelOptions(true));
+            fail("Expected an invalid @id to be rejected");
+        } catch (final JsonLdError e) {
+            assertEquals(JsonLdError.Error.INVALID_ID_VALUE, e.getType());
+        }
+    }
+}
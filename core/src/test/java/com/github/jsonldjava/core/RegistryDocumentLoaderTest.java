@@ -0,0 +1,63 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class RegistryDocumentLoaderTest {
+
+    private static class CountingDocumentLoader extends DocumentLoader {
+
+        private final AtomicInteger loads = new AtomicInteger();
+
+        @Override
+        public RemoteDocument loadDocument(String url) throws JsonLdError {
+            loads.incrementAndGet();
+            return new RemoteDocument(url, "fallback");
+        }
+    }
+
+    @Test
+    public void registeredDocumentsAreServedFromMemory() throws Exception {
+        final CountingDocumentLoader fallback = new CountingDocumentLoader();
+        final RegistryDocumentLoader loader = new RegistryDocumentLoader(fallback);
+        final Object context = JsonUtils
+                .fromString("{\"@context\":{\"name\":\"http://xmlns.com/foaf/0.1/name\"}}");
+        loader.register("http://example.org/context", context);
+
+        assertSame(context, loader.loadDocument("http://example.org/context").getDocument());
+        assertSame(context, loader.loadDocument("http://example.org/context").getDocument());
+        assertEquals(0, fallback.loads.get());
+
+        assertEquals("fallback", loader.loadDocument("http://example.org/other").getDocument());
+        assertEquals(1, fallback.loads.get());
+    }
+
+    @Test
+    public void documentsAreRegisteredFromTheClasspath() throws Exception {
+        final CountingDocumentLoader fallback = new CountingDocumentLoader();
+        final RegistryDocumentLoader loader = new RegistryDocumentLoader(fallback);
+        assertEquals(1, loader.registerClasspathDocuments(getClass().getClassLoader()));
+
+        final JsonLdOptions opts = new JsonLdOptions();
+        opts.setDocumentLoader(loader);
+        final Object expanded = JsonLdProcessor.expand(JsonUtils.fromString(
+                "{\"@context\":\"http://example.org/registered/context\",\"name\":\"Alice\"}"),
+                opts);
+
+        assertEquals(JsonUtils.fromString(
+                "[{\"http://xmlns.com/foaf/0.1/name\":[{\"@value\":\"Alice\"}]}]"), expanded);
+        assertEquals(0, fallback.loads.get());
+        assertEquals(
+                "http://xmlns.com/foaf/0.1/name",
+                ((Map<String, Object>) ((Map<String, Object>) loader.loadDocument(
+                        "http://example.org/registered/context").getDocument()).get("@context"))
+                        .get("name"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class StreamingExpansionTest {
+
+    private static final String CONTEXT = "{\"@vocab\":\"http://example.org/\",\"data\":\"@graph\"}";
+
+    private static List<Object> expandStreaming(String json) throws Exception {
+        final List<Object> nodes = new ArrayList<Object>();
+        final JsonParser parser = new JsonFactory().createParser(json);
+        try {
+            JsonLdProcessor.expand(parser, new JsonLdOptions(), new JsonLdNodeCallback() {
+                @Override
+                public void call(Map<String, Object> node) {
+                    nodes.add(node);
+                }
+            });
+        } finally {
+            parser.close();
+        }
+        return nodes;
+    }
+
+    private static void assertSameExpansion(String json) throws Exception {
+        assertEquals(JsonLdProcessor.expand(JsonUtils.fromString(json), new JsonLdOptions()),
+                expandStreaming(json));
+    }
+
+    @Test
+    public void streamedExpansionMatchesExpansion() throws Exception {
+        assertSameExpansion("[{\"@context\":" + CONTEXT + ",\"@id\":\"http://example.org/a\","
+                + "\"name\":\"A\"},\"free\",{\"@context\":" + CONTEXT + ",\"@value\":1},"
+                + "{\"@id\":\"http://example.org/b\",\"http://example.org/p\":{\"@list\":[1,2]}}]");
+        assertSameExpansion("{\"@context\":" + CONTEXT + ",\"@graph\":[{\"name\":\"A\"},"
+                + "{\"@id\":\"_:b0\",\"knows\":{\"name\":\"B\"}},{\"@value\":\"dropped\"}]}");
+        assertSameExpansion("{\"@context\":" + CONTEXT + ",\"data\":[{\"name\":\"A\"}]}");
+        assertSameExpansion("{\"@context\":" + CONTEXT + ",\"data\":{\"name\":\"A\"}}");
+        // not streamable, but still expanded
+        assertSameExpansion("{\"@graph\":[{\"http://example.org/name\":\"A\"}],\"@context\":"
+                + CONTEXT + "}");
+        assertSameExpansion("{\"@context\":" + CONTEXT + ",\"@id\":\"http://example.org/g\","
+                + "\"@graph\":[{\"name\":\"A\"}]}");
+        assertSameExpansion("{\"@context\":" + CONTEXT + ",\"name\":\"A\"}");
+        assertSameExpansion("\"just a string\"");
+    }
+
+    @Test
+    public void nodesAreEmittedBeforeTheDocumentIsRead() throws Exception {
+        final StringBuilder json = new StringBuilder("{\"@context\":" + CONTEXT + ",\"@graph\":[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"name\":\"").append(i).append("\"}");
+        }
+        final String document = json.append("]}").toString();
+        final JsonParser parser = new JsonFactory().createParser(document);
+        final List<Long> offsets = new ArrayList<Long>();
+        JsonLdProcessor.expand(parser, new JsonLdOptions(), new JsonLdNodeCallback() {
+            @Override
+            public void call(Map<String, Object> node) {
+                offsets.add(parser.getCurrentLocation().getCharOffset());
+            }
+        });
+
+        assertEquals(1000, offsets.size());
+        assertTrue(offsets.get(0) < document.length() / 100);
+    }
+
+    @Test
+    public void membersAfterAStreamedGraphAreNotStreamable() throws Exception {
+        final String json = "{\"@context\":" + CONTEXT + ",\"@graph\":[{\"name\":\"A\"}],"
+                + "\"@id\":\"http://example.org/g\"}";
+        try {
+            expandStreaming(json);
+            fail("Expected a member after @graph to make the document not streamable");
+        } catch (final JsonLdError e) {
+            assertEquals(JsonLdError.Error.NOT_STREAMABLE, e.getType());
+        }
+
+        // the document is still valid, and can be expanded whole
+        assertEquals(JsonUtils.fromString("[{\"@id\":\"http://example.org/g\",\"@graph\":["
+                + "{\"http://example.org/name\":[{\"@value\":\"A\"}]}]}]"),
+                JsonLdProcessor.expand(JsonUtils.fromString(json), new JsonLdOptions()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.core.RDFDataset.Quad;
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class StreamingFromRDFTest {
+
+    private static final String RDF = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+
+    private static List<Object> fromRDFStreaming(String nquads) throws Exception {
+        final RDFDataset dataset = RDFDatasetUtils.parseNQuads(nquads);
+        final List<Quad> quads = new ArrayList<Quad>();
+        for (final String graphName : dataset.graphNames()) {
+            quads.addAll(dataset.getQuads(graphName));
+        }
+        final List<Object> nodes = new ArrayList<Object>();
+        JsonLdProcessor.fromRDF(quads.iterator(), new JsonLdOptions(), new JsonLdNodeCallback() {
+            @Override
+            public void call(Map<String, Object> node) {
+                nodes.add(node);
+            }
+        });
+        return nodes;
+    }
+
+    @Test
+    public void streamedNodesMatchFromRDF() throws Exception {
+        final String nquads = "_:l1 <" + RDF + "first> \"1\" .\n"
+                + "_:l1 <" + RDF + "rest> _:l2 .\n"
+                + "_:l2 <" + RDF + "first> \"2\" .\n"
+                + "_:l2 <" + RDF + "rest> <" + RDF + "nil> .\n"
+                + "_:x <http://example.org/name> \"X\" .\n"
+                + "<http://example.org/a> <http://example.org/list> _:l1 .\n"
+                + "<http://example.org/a> <http://example.org/knows> _:x .\n"
+                + "<http://example.org/a> <" + RDF + "type> <http://example.org/T> .\n"
+                + "<http://example.org/b> <http://example.org/empty> <" + RDF + "nil> .\n";
+
+        final List<Object> nodes = fromRDFStreaming(nquads);
+        assertEquals(JsonLdProcessor.fromRDF(nquads), nodes);
+        assertEquals(3, nodes.size());
+    }
+
+    @Test
+    public void listsAfterTheirUserArePassedOnAsNodes() throws Exception {
+        final List<Object> nodes = fromRDFStreaming("<http://example.org/a> "
+                + "<http://example.org/list> _:l1 .\n"
+                + "_:l1 <" + RDF + "first> \"1\" .\n"
+                + "_:l1 <" + RDF + "rest> <" + RDF + "nil> .\n");
+
+        assertEquals(JsonUtils.fromString("[{\"@id\":\"http://example.org/a\","
+                + "\"http://example.org/list\":[{\"@id\":\"_:l1\"}]},"
+                + "{\"@id\":\"_:l1\",\"" + RDF + "first\":[{\"@value\":\"1\"}],"
+                + "\"" + RDF + "rest\":[{\"@id\":\"" + RDF + "nil\"}]}]"), nodes);
+    }
+
+    @Test
+    public void listsUsedAgainAreAlsoPassedOnAsNodes() throws Exception {
+        final List<Object> nodes = fromRDFStreaming("_:l1 <" + RDF + "first> \"1\" .\n"
+                + "_:l1 <" + RDF + "rest> <" + RDF + "nil> .\n"
+                + "<http://example.org/a> <http://example.org/p> _:l1 .\n"
+                + "<http://example.org/b> <http://example.org/p> _:l1 .\n");
+
+        assertEquals(JsonUtils.fromString("[{\"@id\":\"http://example.org/a\","
+                + "\"http://example.org/p\":[{\"@list\":[{\"@value\":\"1\"}]}]},"
+                + "{\"@id\":\"http://example.org/b\","
+                + "\"http://example.org/p\":[{\"@id\":\"_:l1\"}]},"
+                + "{\"@id\":\"_:l1\",\"" + RDF + "first\":[{\"@value\":\"1\"}],"
+                + "\"" + RDF + "rest\":[{\"@id\":\"" + RDF + "nil\"}]}]"), nodes);
+    }
+
+    @Test
+    public void listsReferencedBeforeAreNotConverted() throws Exception {
+        final List<Object> nodes = fromRDFStreaming("_:b <http://example.org/p> _:l2 .\n"
+                + "_:l1 <" + RDF + "first> \"1\" .\n"
+                + "_:l1 <" + RDF + "rest> _:l2 .\n"
+                + "_:l2 <" + RDF + "first> \"2\" .\n"
+                + "_:l2 <" + RDF + "rest> <" + RDF + "nil> .\n"
+                + "<http://example.org/a> <http://example.org/p> _:l1 .\n");
+
+        assertEquals(JsonUtils.fromString("[{\"@id\":\"_:b\","
+                + "\"http://example.org/p\":[{\"@id\":\"_:l2\"}]},"
+                + "{\"@id\":\"http://example.org/a\","
+                + "\"http://example.org/p\":[{\"@id\":\"_:l1\"}]},"
+                + "{\"@id\":\"_:l1\",\"" + RDF + "first\":[{\"@value\":\"1\"}],"
+                + "\"" + RDF + "rest\":[{\"@id\":\"_:l2\"}]},"
+                + "{\"@id\":\"_:l2\",\"" + RDF + "first\":[{\"@value\":\"2\"}],"
+                + "\"" + RDF + "rest\":[{\"@id\":\"" + RDF + "nil\"}]}]"), nodes);
+    }
+
+    @Test
+    public void nodesInNamedGraphsAreWrapped() throws Exception {
+        final List<Object> nodes = fromRDFStreaming("<http://example.org/s> "
+                + "<http://example.org/p> \"o\" <http://example.org/g> .\n"
+                + "<http://example.org/t> <http://example.org/p> \"o\" <http://example.org/g> .\n");
+
+        assertEquals(JsonUtils.fromString("[{\"@id\":\"http://example.org/g\",\"@graph\":["
+                + "{\"@id\":\"http://example.org/s\",\"http://example.org/p\":[{\"@value\":\"o\"}]}]},"
+                + "{\"@id\":\"http://example.org/g\",\"@graph\":["
+                + "{\"@id\":\"http://example.org/t\",\"http://example.org/p\":[{\"@value\":\"o\"}]}]}]"),
+                nodes);
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.github.jsonldjava.core.RDFDataset.Quad;
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class StreamingToRDFTest {
+
+    private static final String CONTEXT = "{\"@vocab\":\"http://example.org/\","
+            + "\"knows\":{\"@type\":\"@id\"}}";
+
+    private static class CollectingSink implements RDFQuadSink {
+        private final List<String> quads = new ArrayList<String>();
+        private final Map<String, String> namespaces = new LinkedHashMap<String, String>();
+        private boolean started = false;
+        private boolean ended = false;
+
+        @Override
+        public void start() {
+            started = true;
+        }
+
+        @Override
+        public void namespace(String prefix, String namespace) {
+            assertTrue(started && quads.isEmpty());
+            namespaces.put(prefix, namespace);
+        }
+
+        @Override
+        public void quad(Quad quad) {
+            assertTrue(started && !ended);
+            quads.add(RDFDatasetUtils.toNQuad(quad, quad.getGraph() == null ? null : quad
+                    .getGraph().getValue()));
+        }
+
+        @Override
+        public void end() {
+            ended = true;
+        }
+    }
+
+    private static List<String> toRDFStreaming(String json) throws Exception {
+        final CollectingSink sink = new CollectingSink();
+        final JsonParser parser = new JsonFactory().createParser(json);
+        try {
+            JsonLdProcessor.streamToRDF(parser, sink, new JsonLdOptions());
+        } finally {
+            parser.close();
+        }
+        assertTrue(sink.ended);
+        return sink.quads;
+    }
+
+    private static List<String> toRDF(String json) throws Exception {
+        final RDFDataset dataset = (RDFDataset) JsonLdProcessor.toRDF(JsonUtils.fromString(json),
+                new JsonLdOptions());
+        final List<String> quads = new ArrayList<String>();
+        for (final String graphName : dataset.graphNames()) {
+            for (final Quad quad : dataset.getQuads(graphName)) {
+                quads.add(RDFDatasetUtils.toNQuad(quad, "@default".equals(graphName) ? null
+                        : graphName));
+            }
+        }
+        return quads;
+    }
+
+    @Test
+    public void streamedQuadsMatchToRDF() throws Exception {
+        final String json = "{\"@context\":" + CONTEXT + ",\"@graph\":["
+                + "{\"@id\":\"http://example.org/a\",\"name\":\"A\",\"knows\":\"_:x\"},"
+                + "{\"@id\":\"_:x\",\"name\":\"X\",\"age\":42,\"friend\":{\"name\":\"Y\"}},"
+                + "{\"@id\":\"http://example.org/g\",\"@graph\":{\"@id\":\"_:x\",\"name\":\"Z\"}}]}";
+        final List<String> expected = toRDF(json);
+        final List<String> actual = toRDFStreaming(json);
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+        assertEquals(7, actual.size());
+    }
+
+    @Test
+    public void blankNodesAreConsistentAcrossElements() throws Exception {
+        final List<String> quads = toRDFStreaming("[{\"@context\":" + CONTEXT
+                + ",\"@id\":\"http://example.org/a\",\"list\":{\"@list\":[1]},\"knows\":\"_:x\"},"
+                + "{\"@id\":\"_:x\",\"http://example.org/name\":\"X\"}]");
+
+        String label = null;
+        for (final String quad : quads) {
+            if (quad.startsWith("<http://example.org/a> <http://example.org/knows> ")) {
+                label = quad.split(" ")[2];
+            }
+        }
+        assertTrue(label.startsWith("_:"));
+        assertEquals(label + " <http://example.org/name> \"X\" .\n", quads.get(quads.size() - 1));
+    }
+
+    @Test
+    public void quadsArePushedToASinkWithoutADataset() throws Exception {
+        final String json = "{\"@context\":" + CONTEXT + ",\"@graph\":["
+                + "{\"@id\":\"http://example.org/a\",\"name\":\"A\",\"knows\":\"_:x\"},"
+                + "{\"@id\":\"_:x\",\"list\":{\"@list\":[1,2]}}]}";
+        final CollectingSink sink = new CollectingSink();
+        final JsonLdOptions options = new JsonLdOptions();
+        options.useNamespaces = true;
+        JsonLdProcessor.toRDFQuads(JsonUtils.fromString(json), sink, options);
+
+        assertTrue(sink.ended);
+        assertEquals(toRDF(json), sink.quads);
+        assertEquals("http://example.org/", sink.namespaces.get(""));
+    }
+}
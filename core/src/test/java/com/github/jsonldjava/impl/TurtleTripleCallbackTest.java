@@ -0,0 +1,33 @@
+package com.github.jsonldjava.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.core.RDFDataset;
+
+public class TurtleTripleCallbackTest {
+
+    private static String toTurtle(String... namespaces) {
+        final RDFDataset dataset = new RDFDataset();
+        for (int i = 0; i < namespaces.length; i += 2) {
+            dataset.setNamespace(namespaces[i], namespaces[i + 1]);
+        }
+        dataset.addTriple("http://example.org/sub/a", "http://example.org/p",
+                "http://example.org/b");
+        return (String) new TurtleTripleCallback().call(dataset);
+    }
+
+    @Test
+    public void longestMatchingNamespaceIsUsed() {
+        // the order the namespaces are declared in does not matter
+        for (final String turtle : new String[] {
+                toTurtle("ex", "http://example.org/", "exsub", "http://example.org/sub/"),
+                toTurtle("exsub", "http://example.org/sub/", "ex", "http://example.org/") }) {
+            assertTrue(turtle, turtle.contains("exsub:a ex:p ex:b"));
+            assertTrue(turtle, turtle.contains("@prefix exsub: <http://example.org/sub/> ."));
+            assertFalse(turtle, turtle.contains("ex:sub/a"));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.jsonldjava.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class IriPrefixTrieTest {
+
+    private static IriPrefixTrie<String> trie() {
+        final Map<String, String> prefixes = new LinkedHashMap<String, String>();
+        prefixes.put("http://example.org/", "ex");
+        prefixes.put("http://example.org/vocab#", "vocab");
+        prefixes.put("http://example.com/", "com");
+        return new IriPrefixTrie<String>(prefixes);
+    }
+
+    @Test
+    public void longestPrefixWins() {
+        final IriPrefixTrie<String> trie = trie();
+        assertEquals(3, trie.size());
+        assertEquals("http://example.org/vocab#",
+                trie.longestPrefixOf("http://example.org/vocab#name"));
+        assertEquals("http://example.org/", trie.longestPrefixOf("http://example.org/thing"));
+        assertEquals("http://example.com/", trie.longestPrefixOf("http://example.com/"));
+        assertNull(trie.longestPrefixOf("http://example.net/"));
+        assertEquals("vocab", trie.get("http://example.org/vocab#"));
+        assertNull(trie.get("http://example.org/vocab"));
+    }
+
+    @Test
+    public void properPrefixesAreShortestFirst() {
+        final IriPrefixTrie<String> trie = trie();
+        final List<Map.Entry<String, String>> prefixes = trie
+                .properPrefixesOf("http://example.org/vocab#name");
+        assertEquals(2, prefixes.size());
+        assertEquals("ex", prefixes.get(0).getValue());
+        assertEquals("vocab", prefixes.get(1).getValue());
+        assertTrue(trie.properPrefixesOf("http://example.com/").isEmpty());
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import com.github.jsonldjava.core.JsonLdTripleCallback;
 import com.github.jsonldjava.core.RDFDataset;
 import com.github.jsonldjava.core.RDFDataset.Node;
+import com.github.jsonldjava.core.RDFQuadSink;
 import com.hp.hpl.jena.rdf.model.AnonId;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.ModelFactory;
@@ -14,7 +15,12 @@ import com.hp.hpl.jena.rdf.model.Resource;
 import com.hp.hpl.jena.rdf.model.Statement;
 import com.hp.hpl.jena.shared.InvalidPropertyURIException;
 
-public class JenaTripleCallback implements JsonLdTripleCallback {
+/**
+ * Adds the statements of an {@link RDFDataset} to a Jena {@link Model}, either
+ * all at once as a {@link JsonLdTripleCallback} or one at a time as an
+ * {@link RDFQuadSink}. As with the callback, graph names are ignored.
+ */
+public class JenaTripleCallback implements JsonLdTripleCallback, RDFQuadSink {
 
     private Model jenaModel = ModelFactory.createDefaultModel();
 
@@ -85,17 +91,38 @@ public class JenaTripleCallback implements JsonLdTripleCallback {
                 graphName = null;
             }
             for (final RDFDataset.Quad quad : quads) {
-                if (quad.getObject().isLiteral()) {
-                    triple(quad.getSubject(), quad.getPredicate(), quad.getObject().getValue(),
-                            quad.getObject().getDatatype(), quad.getObject().getLanguage(),
-                            graphName);
-                } else {
-                    triple(quad.getSubject(), quad.getPredicate(), quad.getObject(), graphName);
-                }
+                quad(quad, graphName);
             }
         }
 
         return getJenaModel();
     }
 
+    private void quad(RDFDataset.Quad quad, String graphName) {
+        if (quad.getObject().isLiteral()) {
+            triple(quad.getSubject(), quad.getPredicate(), quad.getObject().getValue(), quad
+                    .getObject().getDatatype(), quad.getObject().getLanguage(), graphName);
+        } else {
+            triple(quad.getSubject(), quad.getPredicate(), quad.getObject(), graphName);
+        }
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void namespace(String prefix, String namespace) {
+        jenaModel.setNsPrefix(prefix, namespace);
+    }
+
+    @Override
+    public void quad(RDFDataset.Quad quad) {
+        quad(quad, quad.getGraph() == null ? null : quad.getGraph().getValue());
+    }
+
+    @Override
+    public void end() {
+    }
+
 }
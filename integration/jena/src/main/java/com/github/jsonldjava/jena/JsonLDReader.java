@@ -20,7 +20,6 @@ package com.github.jsonldjava.jena;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
 import java.util.Map;
 
 import org.apache.jena.atlas.lib.InternalErrorException;
@@ -31,12 +30,12 @@ import org.apache.jena.riot.lang.LabelToNode;
 import org.apache.jena.riot.system.StreamRDF;
 import org.apache.jena.riot.system.SyntaxLabels;
 
-import com.github.jsonldjava.core.JsonLdTripleCallback;
 import com.github.jsonldjava.core.JsonLdApi;
 import com.github.jsonldjava.core.JsonLdError;
 import com.github.jsonldjava.core.JsonLdOptions;
 import com.github.jsonldjava.core.JsonLdProcessor;
 import com.github.jsonldjava.core.RDFDataset;
+import com.github.jsonldjava.core.RDFQuadSink;
 import com.github.jsonldjava.utils.JsonUtils;
 import com.hp.hpl.jena.datatypes.RDFDatatype;
 import com.hp.hpl.jena.graph.Node;
@@ -50,43 +49,36 @@ public class JsonLDReader implements ReaderRIOT {
     public void read(InputStream in, String baseURI, ContentType ct, final StreamRDF output,
             Context context) {
         try {
-            final JsonLdTripleCallback callback = new JsonLdTripleCallback() {
+            final RDFQuadSink sink = new RDFQuadSink() {
 
                 @Override
-                // public Object call(Map<String, Object> dataset) {
-                public Object call(RDFDataset dataset) {
-                    for (final String gn : dataset.keySet()) {
-                        final Object x = dataset.get(gn);
-                        if ("@default".equals(gn)) {
-                            @SuppressWarnings("unchecked")
-                            final List<Map<String, Object>> triples = (List<Map<String, Object>>) x;
-                            for (final Map<String, Object> t : triples) {
-                                final Node s = createNode(t, "subject");
-                                final Node p = createNode(t, "predicate");
-                                final Node o = createNode(t, "object");
-                                final Triple triple = Triple.create(s, p, o);
-                                output.triple(triple);
-                            }
-                        } else {
-                            @SuppressWarnings("unchecked")
-                            final List<Map<String, Object>> quads = (List<Map<String, Object>>) x;
-                            final Node g = NodeFactory.createURI(gn); // Bnodes?
-                            for (final Map<String, Object> q : quads) {
-                                final Node s = createNode(q, "subject");
-                                final Node p = createNode(q, "predicate");
-                                final Node o = createNode(q, "object");
-                                output.quad(Quad.create(g, s, p, o));
-                            }
+                public void start() {
+                }
 
-                        }
+                @Override
+                public void namespace(String prefix, String namespace) {
+                    output.prefix(prefix, namespace);
+                }
 
+                @Override
+                public void quad(RDFDataset.Quad quad) {
+                    final Node s = createNode(quad.getSubject());
+                    final Node p = createNode(quad.getPredicate());
+                    final Node o = createNode(quad.getObject());
+                    if (quad.getGraph() == null) {
+                        output.triple(Triple.create(s, p, o));
+                    } else {
+                        output.quad(Quad.create(createNode(quad.getGraph()), s, p, o));
                     }
-                    return null;
+                }
+
+                @Override
+                public void end() {
                 }
             };
             JsonLdOptions options = new JsonLdOptions(baseURI);
             options.useNamespaces = true;
-            JsonLdProcessor.toRDF(JsonUtils.fromInputStream(in), callback, options);
+            JsonLdProcessor.toRDFQuads(JsonUtils.fromInputStream(in), sink, options);
         } catch (final IOException e) {
             throw new RiotException("Could not read JSONLD: " + e, e);
         } catch (final JsonLdError e) {
@@ -100,12 +92,6 @@ public class JsonLDReader implements ReaderRIOT {
     public static String BLANK_NODE = "blank node";
     public static String IRI = "IRI";
 
-    private Node createNode(Map<String, Object> tripleMap, String key) {
-        @SuppressWarnings("unchecked")
-        final Map<String, Object> x = (Map<String, Object>) (tripleMap.get(key));
-        return createNode(x);
-    }
-
     // See RDFParser
     private Node createNode(Map<String, Object> map) {
         final String type = (String) map.get("type");
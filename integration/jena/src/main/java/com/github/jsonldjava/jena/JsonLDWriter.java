@@ -40,11 +40,9 @@ import org.apache.jena.riot.RiotException;
 import org.apache.jena.riot.system.PrefixMap;
 import org.apache.jena.riot.writer.WriterDatasetRIOTBase;
 
-import com.github.jsonldjava.core.JsonLdApi;
 import com.github.jsonldjava.core.JsonLdError;
 import com.github.jsonldjava.core.JsonLdOptions;
 import com.github.jsonldjava.core.JsonLdProcessor;
-import com.github.jsonldjava.core.RDFDataset;
 import com.github.jsonldjava.utils.JsonUtils;
 import com.hp.hpl.jena.graph.Graph;
 import com.hp.hpl.jena.graph.Node;
@@ -97,10 +95,7 @@ class JsonLDWriter extends WriterDatasetRIOTBase {
             // opts.skipExpansion = false;
             opts.setCompactArrays(true);
             // opts.keepFreeFloatingNodes = false;
-            final JsonLdApi api = new JsonLdApi(opts);
             final JenaRDFParser parser = new JenaRDFParser();
-            final RDFDataset result = parser.parse(dataset);
-            Object obj = api.fromRDF(result);
             final Map<String, Object> localCtx = new HashMap<String, Object>();
             localCtx.put("@context", ctx);
 
@@ -109,7 +104,7 @@ class JsonLDWriter extends WriterDatasetRIOTBase {
             // obj = JSONLD.simplify(obj, opts);
             // else
             // Unclear as to the way to set better printing.
-            obj = JsonLdProcessor.compact(obj, localCtx, opts);
+            final Object obj = JsonLdProcessor.compactFromRDF(dataset, localCtx, opts, parser);
 
             if (isPretty()) {
                 JsonUtils.writePrettyPrint(writer, obj);
@@ -1,5 +1,6 @@
 package com.github.jsonldjava.jena;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.StringWriter;
@@ -16,8 +17,10 @@ import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.github.jsonldjava.core.JsonLdTripleCallback;
 import com.github.jsonldjava.core.JsonLdError;
+import com.github.jsonldjava.core.JsonLdOptions;
 import com.github.jsonldjava.core.JsonLdProcessor;
 import com.github.jsonldjava.jena.JenaTripleCallback;
+import com.github.jsonldjava.utils.JsonUtils;
 import com.github.jsonldjava.utils.Obj;
 import com.hp.hpl.jena.rdf.model.Model;
 
@@ -80,4 +83,21 @@ public class JenaTripleCallbackTest {
         assertTrue(Obj.equals(expected, result));
     }
 
+    @Test
+    public void statementsAreAddedOneAtATime() throws Exception {
+        final Object input = JsonUtils.fromString("{\"@context\":{\"ex\":\"http://example.org/\"},"
+                + "\"@id\":\"ex:a\",\"ex:name\":\"A\"}");
+        final JenaTripleCallback sink = new JenaTripleCallback();
+
+        final JsonLdOptions options = new JsonLdOptions();
+        options.useNamespaces = true;
+        JsonLdProcessor.toRDFQuads(input, sink, options);
+
+        final Model model = sink.getJenaModel();
+        assertEquals(1, model.size());
+        assertTrue(model.contains(model.createResource("http://example.org/a"),
+                model.createProperty("http://example.org/name"), "A"));
+        assertEquals("http://example.org/", model.getNsPrefixURI("ex"));
+    }
+
 }
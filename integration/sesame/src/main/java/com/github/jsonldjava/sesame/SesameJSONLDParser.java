@@ -60,13 +60,16 @@ public class SesameJSONLDParser extends RDFParserBase implements RDFParser {
         options.useNamespaces = true;
         
         try {
-            JsonLdProcessor.toRDF(JsonUtils.fromInputStream(in), callback, options);
+            JsonLdProcessor.toRDFQuads(JsonUtils.fromInputStream(in), callback, options);
         } catch (final JsonLdError e) {
             throw new RDFParseException("Could not parse JSONLD", e);
         } catch (final RuntimeException e) {
             if (e.getCause() != null && e.getCause() instanceof RDFParseException) {
                 throw (RDFParseException) e.getCause();
             }
+            if (e.getCause() != null && e.getCause() instanceof RDFHandlerException) {
+                throw (RDFHandlerException) e.getCause();
+            }
             throw e;
         }
     }
@@ -81,13 +84,16 @@ public class SesameJSONLDParser extends RDFParserBase implements RDFParser {
         options.useNamespaces = true;
         
         try {
-            JsonLdProcessor.toRDF(JsonUtils.fromReader(reader), callback, options);
+            JsonLdProcessor.toRDFQuads(JsonUtils.fromReader(reader), callback, options);
         } catch (final JsonLdError e) {
             throw new RDFParseException("Could not parse JSONLD", e);
         } catch (final RuntimeException e) {
             if (e.getCause() != null && e.getCause() instanceof RDFParseException) {
                 throw (RDFParseException) e.getCause();
             }
+            if (e.getCause() != null && e.getCause() instanceof RDFHandlerException) {
+                throw (RDFHandlerException) e.getCause();
+            }
             throw e;
         }
     }
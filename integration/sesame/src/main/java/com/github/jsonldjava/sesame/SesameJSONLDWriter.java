@@ -82,8 +82,6 @@ public class SesameJSONLDWriter extends RDFWriterBase implements RDFWriter {
     public void endRDF() throws RDFHandlerException {
         final SesameRDFParser serialiser = new SesameRDFParser();
         try {
-            Object output = JsonLdProcessor.fromRDF(model, serialiser);
-
             final JSONLDMode mode = getWriterConfig().get(JSONLDSettings.JSONLD_MODE);
 
             final JsonLdOptions opts = new JsonLdOptions();
@@ -93,22 +91,30 @@ public class SesameJSONLDWriter extends RDFWriterBase implements RDFWriter {
             opts.setUseNativeTypes(getWriterConfig().get(JSONLDSettings.USE_NATIVE_TYPES));
             // opts.optimize = getWriterConfig().get(JSONLDSettings.OPTIMIZE);
 
+            Object output;
+            if (mode == JSONLDMode.COMPACT) {
+                final Map<String, Object> ctx = new LinkedHashMap<String, Object>();
+                addPrefixes(ctx, model.getNamespaces());
+                final Map<String, Object> localCtx = new HashMap<String, Object>();
+                localCtx.put("@context", ctx);
+
+                // NOTE: compacts the output of fromRDF without expanding it
+                // again
+                output = JsonLdProcessor.compactFromRDF(model, localCtx, opts, serialiser);
+            } else {
+                output = JsonLdProcessor.fromRDF(model, opts, serialiser);
+            }
+
             if (mode == JSONLDMode.EXPAND) {
                 output = JsonLdProcessor.expand(output, opts);
             }
             // TODO: Implement inframe in JSONLDSettings
             final Object inframe = null;
             if (mode == JSONLDMode.FLATTEN) {
+                // the output of fromRDF is already expanded
+                opts.setInputExpanded(true);
                 output = JsonLdProcessor.flatten(output, inframe, opts);
             }
-            if (mode == JSONLDMode.COMPACT) {
-                final Map<String, Object> ctx = new LinkedHashMap<String, Object>();
-                addPrefixes(ctx, model.getNamespaces());
-                final Map<String, Object> localCtx = new HashMap<String, Object>();
-                localCtx.put("@context", ctx);
-
-                output = JsonLdProcessor.compact(output, localCtx, opts);
-            }
             if (getWriterConfig().get(BasicWriterSettings.PRETTY_PRINT)) {
                 JsonUtils.writePrettyPrint(writer, output);
             } else {
@@ -21,8 +21,15 @@ import org.openrdf.rio.helpers.StatementCollector;
 
 import com.github.jsonldjava.core.JsonLdTripleCallback;
 import com.github.jsonldjava.core.RDFDataset;
+import com.github.jsonldjava.core.RDFQuadSink;
 
-public class SesameTripleCallback implements JsonLdTripleCallback {
+/**
+ * Passes the statements of an {@link RDFDataset} to a Sesame
+ * {@link RDFHandler}, either all at once as a {@link JsonLdTripleCallback} or
+ * one at a time as an {@link RDFQuadSink}. Only as a sink are
+ * {@link RDFHandler#startRDF()} and {@link RDFHandler#endRDF()} called.
+ */
+public class SesameTripleCallback implements JsonLdTripleCallback, RDFQuadSink {
 
     private ValueFactory vf;
 
@@ -174,11 +181,7 @@ public class SesameTripleCallback implements JsonLdTripleCallback {
     @Override
     public Object call(final RDFDataset dataset) {
         for(Entry<String, String> nextNamespace : dataset.getNamespaces().entrySet()) {
-            try {
-                handler.handleNamespace(nextNamespace.getKey(), nextNamespace.getValue());
-            } catch (RDFHandlerException e) {
-                throw new RuntimeException("Failed handling namespace", e);
-            }
+            namespace(nextNamespace.getKey(), nextNamespace.getValue());
         }
         for (String graphName : dataset.keySet()) {
             final List<RDFDataset.Quad> quads = dataset.getQuads(graphName);
@@ -186,18 +189,54 @@ public class SesameTripleCallback implements JsonLdTripleCallback {
                 graphName = null;
             }
             for (final RDFDataset.Quad quad : quads) {
-                if (quad.getObject().isLiteral()) {
-                    triple(quad.getSubject().getValue(), quad.getPredicate().getValue(), quad
-                            .getObject().getValue(), quad.getObject().getDatatype(), quad
-                            .getObject().getLanguage(), graphName);
-                } else {
-                    triple(quad.getSubject().getValue(), quad.getPredicate().getValue(), quad
-                            .getObject().getValue(), graphName);
-                }
+                quad(quad, graphName);
             }
         }
 
         return getHandler();
     }
 
+    private void quad(RDFDataset.Quad quad, String graphName) {
+        if (quad.getObject().isLiteral()) {
+            triple(quad.getSubject().getValue(), quad.getPredicate().getValue(), quad.getObject()
+                    .getValue(), quad.getObject().getDatatype(), quad.getObject().getLanguage(),
+                    graphName);
+        } else {
+            triple(quad.getSubject().getValue(), quad.getPredicate().getValue(), quad.getObject()
+                    .getValue(), graphName);
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            handler.startRDF();
+        } catch (final RDFHandlerException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void namespace(String prefix, String namespace) {
+        try {
+            handler.handleNamespace(prefix, namespace);
+        } catch (RDFHandlerException e) {
+            throw new RuntimeException("Failed handling namespace", e);
+        }
+    }
+
+    @Override
+    public void quad(RDFDataset.Quad quad) {
+        quad(quad, quad.getGraph() == null ? null : quad.getGraph().getValue());
+    }
+
+    @Override
+    public void end() {
+        try {
+            handler.endRDF();
+        } catch (final RDFHandlerException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
 }
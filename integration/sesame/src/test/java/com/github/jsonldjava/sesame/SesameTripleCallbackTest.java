@@ -1,6 +1,7 @@
 package com.github.jsonldjava.sesame;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.Iterator;
@@ -9,12 +10,14 @@ import org.junit.Test;
 import org.openrdf.model.Graph;
 import org.openrdf.model.Statement;
 import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.URIImpl;
 import org.openrdf.model.impl.ValueFactoryImpl;
 import org.openrdf.rio.ParserConfig;
 import org.openrdf.rio.helpers.ParseErrorCollector;
 import org.openrdf.rio.helpers.StatementCollector;
 
 import com.github.jsonldjava.core.JsonLdError;
+import com.github.jsonldjava.core.JsonLdOptions;
 import com.github.jsonldjava.core.JsonLdProcessor;
 import com.github.jsonldjava.sesame.SesameTripleCallback;
 import com.github.jsonldjava.utils.JsonUtils;
@@ -53,4 +56,21 @@ public class SesameTripleCallbackTest {
         assertEquals(0, parseErrorListener.getWarnings().size());
     }
 
+    @Test
+    public void statementsArePassedToTheHandlerOneAtATime() throws JsonLdError, IOException {
+        final Object input = JsonUtils.fromString("{\"@context\":{\"ex\":\"http://example.org/\"},"
+                + "\"@id\":\"ex:a\",\"ex:name\":\"A\",\"@graph\":{\"@id\":\"ex:b\",\"ex:name\":\"B\"}}");
+        final LinkedHashModel model = new LinkedHashModel();
+        final SesameTripleCallback sink = new SesameTripleCallback(new StatementCollector(model));
+
+        final JsonLdOptions options = new JsonLdOptions();
+        options.useNamespaces = true;
+        JsonLdProcessor.toRDFQuads(input, sink, options);
+
+        assertEquals(2, model.size());
+        assertTrue(model.contains(new URIImpl("http://example.org/b"), new URIImpl(
+                "http://example.org/name"), null, new URIImpl("http://example.org/a")));
+        assertEquals("http://example.org/", model.getNamespace("ex").getName());
+    }
+
 }